@@ -1,4 +1,109 @@
 package api;
 
-public class Json {
+import api.helpers.SchemaCache;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared Jackson setup for API bodies. A body is parsed once from its stream into a Jackson tree;
+ * schema validation and model binding both work on that tree, so the text is never re-parsed and no
+ * String of the body is built.
+ * <p>The tree is the only copy of the body this class holds. Responses of the HttpClient transport are
+ * streamed from the connection straight into the parser. Rest Assured keeps the bytes of its own responses,
+ * so a body of the Rest Assured transport is held once more as those bytes while it is parsed.
+ */
+public final class Json {
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    private Json() {
+    }
+
+    /**
+     * @return The shared, pre-configured mapper; do not reconfigure it
+     */
+    public static ObjectMapper mapper() {
+        return mapper;
+    }
+
+    /**
+     * @param type Model class
+     * @return Cached reader bound to the model class
+     */
+    public static ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, mapper::readerFor);
+    }
+
+    /**
+     * Parses a body once.
+     * @param body Body stream, closed by this method
+     * @return Tree to validate and bind from
+     */
+    public static JsonNode parse(InputStream body) {
+        try (InputStream input = body; JsonParser parser = mapper.createParser(input)) {
+            if (parser.nextToken() == null) {
+                throw new IOException("Body is empty");
+            }
+            return mapper.readTree(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse JSON body", e);
+        }
+    }
+
+    /**
+     * Parses a response body once from its stream. A streamed body can only be read once.
+     * @param response Rest Assured response
+     * @return Tree to validate and bind from
+     */
+    public static JsonNode parse(Response response) {
+        return parse(response.asInputStream());
+    }
+
+    /**
+     * Validates a parsed body against a cached schema.
+     * @param body Tree from {@link #parse(InputStream)}
+     * @param schemaPath Path to the JSON schema file in classpath
+     * @throws com.networknt.schema.JsonSchemaException if the body does not match
+     */
+    public static void validate(JsonNode body, String schemaPath) {
+        SchemaCache.validate(schemaPath, body);
+    }
+
+    /**
+     * Binds a parsed body to a model.
+     * @param body Tree from {@link #parse(InputStream)}
+     * @param type Model class
+     * @return Bound model
+     */
+    public static <T> T bind(JsonNode body, Class<T> type) {
+        try {
+            return reader(type).readValue(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to bind JSON body to " + type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Parses a response body once, validates it against a schema and binds it to a model.
+     * @param response Rest Assured response
+     * @param schemaPath Path to the JSON schema file in classpath
+     * @param type Model class
+     * @return Bound model
+     */
+    public static <T> T read(Response response, String schemaPath, Class<T> type) {
+        JsonNode body = parse(response);
+        validate(body, schemaPath);
+        return bind(body, type);
+    }
 }
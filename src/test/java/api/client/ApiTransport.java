@@ -0,0 +1,54 @@
+package api.client;
+
+import config.ApiConfigManager;
+import io.restassured.response.Response;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Sends API requests for the request classes. Both implementations return Rest Assured
+ * {@link Response}s, so {@code ResponseValidator} and model binding work the same on either.
+ * Selected with {@code api.transport=restassured|httpclient}.
+ */
+public interface ApiTransport {
+
+    /**
+     * Sends a GET request without blocking the caller.
+     * @param path Path relative to {@code api.url} (e.g., "/users")
+     * @param queryParams Query parameters, may be empty
+     * @return Future completed with the response, or exceptionally on a transport error
+     */
+    CompletableFuture<Response> getAsync(String path, Map<String, ?> queryParams);
+
+    /**
+     * Sends a GET request and waits for the response.
+     * @param path Path relative to {@code api.url} (e.g., "/users")
+     * @param queryParams Query parameters, may be empty
+     * @return Response
+     */
+    default Response get(String path, Map<String, ?> queryParams) {
+        try {
+            return getAsync(path, queryParams).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return Transport name for logs
+     */
+    String name();
+
+    /**
+     * @return The transport selected by {@code api.transport}, shared by all threads
+     */
+    static ApiTransport configured() {
+        String name = ApiConfigManager.getInstance().get("api.transport", "restassured");
+        return "httpclient".equalsIgnoreCase(name) ? HttpClientTransport.getInstance() : RestAssuredTransport.getInstance();
+    }
+}
@@ -0,0 +1,242 @@
+package api.client;
+
+import config.ApiConfigManager;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Non-blocking transport over {@link HttpClient}: HTTP/2 with multiplexed streams where the server
+ * supports it, gzip bodies, and at most {@code api.async.max.concurrent} requests in flight. Requests
+ * over the limit wait in a queue rather than on a thread, so a few threads can fan out hundreds of calls.
+ * <p>Bodies are not buffered: a response completes once its headers arrive and its body is streamed
+ * from the connection, decompressed on the fly, by whoever reads it (usually {@link api.Json#parse}).
+ * A request leaves the in-flight count at that point. A streamed body can only be read once. The client
+ * keeps its default unbounded executor, because stages bound to a response may block reading its body.
+ */
+public final class HttpClientTransport implements ApiTransport {
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientTransport.class);
+    private static final ApiConfigManager config = ApiConfigManager.getInstance();
+    private static volatile HttpClientTransport instance;
+
+    private final HttpClient client;
+    private final String baseUrl = config.get("api.url");
+    private final String apiKey = config.get("api.key");
+    private final Duration timeout = Duration.ofMillis(config.getInt("api.http.socket.timeout.ms", 30000));
+    private final int limit = Math.max(1, config.getInt("api.async.max.concurrent", 64));
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong http2 = new AtomicLong();
+    private final AtomicLong gzipped = new AtomicLong();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private HttpClientTransport() {
+        client = HttpClient.newBuilder()
+                .version(config.getBoolean("api.async.http2", true) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(config.getInt("api.http.connect.timeout.ms", 10000)))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        logger.info("HttpClient transport created: {} with at most {} requests in flight", client.version(), limit);
+    }
+
+    /**
+     * @return The shared instance, created on first use
+     */
+    public static HttpClientTransport getInstance() {
+        if (instance == null) {
+            synchronized (HttpClientTransport.class) {
+                if (instance == null) {
+                    instance = new HttpClientTransport();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return Request totals for the suite-end log, or null if the transport was never used
+     */
+    public static String stats() {
+        HttpClientTransport current = instance;
+        if (current == null) {
+            return null;
+        }
+        return String.format("HttpClient transport: %d requests (%d over HTTP/2, %d gzipped), %d queued at the limit of %d, peak %d in flight",
+                current.sent.get(), current.http2.get(), current.gzipped.get(), current.queued.get(), current.limit,
+                current.peakInFlight.get());
+    }
+
+    @Override
+    public CompletableFuture<Response> getAsync(String path, Map<String, ?> queryParams) {
+        HttpRequest request = HttpRequest.newBuilder(uri(path, queryParams))
+                .timeout(timeout)
+                .header("X-API-Key", apiKey)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        waiting.add(() -> send(request, result));
+        if (inFlight.get() >= limit) {
+            queued.incrementAndGet();
+        }
+        drain();
+        return result;
+    }
+
+    @Override
+    public String name() {
+        return "httpclient";
+    }
+
+    private void send(HttpRequest request, CompletableFuture<Response> result) {
+        CompletableFuture<HttpResponse<InputStream>> response;
+        try {
+            response = client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((received, error) -> {
+            inFlight.decrementAndGet();
+            drain();
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            try {
+                if (!result.complete(adapt(received))) {
+                    // Cancelled while in flight: nobody will read the body, so give the connection back
+                    closeQuietly(received.body());
+                }
+            } catch (RuntimeException e) {
+                closeQuietly(received.body());
+                result.completeExceptionally(e);
+            }
+        });
+    }
+
+    // Starts queued requests while there is room below the limit
+    private void drain() {
+        while (!waiting.isEmpty()) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return;
+            }
+            if (!inFlight.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Runnable next = waiting.poll();
+            if (next == null) {
+                inFlight.decrementAndGet();
+                continue;
+            }
+            peakInFlight.accumulateAndGet(current + 1, Math::max);
+            sent.incrementAndGet();
+            next.run();
+        }
+    }
+
+    private URI uri(String path, Map<String, ?> queryParams) {
+        String query = queryParams.entrySet().stream()
+                .map(entry -> encode(entry.getKey()) + "=" + encode(String.valueOf(entry.getValue())))
+                .collect(Collectors.joining("&"));
+        return URI.create(baseUrl + path + (query.isEmpty() ? "" : "?" + query));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // Rest Assured response over the body stream, so the usual then()/as() calls keep working
+    private Response adapt(HttpResponse<InputStream> response) {
+        if (response.version() == HttpClient.Version.HTTP_2) {
+            http2.incrementAndGet();
+        }
+        InputStream body = response.body();
+        boolean gzip = response.headers().firstValue("Content-Encoding").map("gzip"::equalsIgnoreCase).orElse(false);
+        if (gzip) {
+            body = new GunzipOnRead(body);
+            gzipped.incrementAndGet();
+        }
+        List<Header> headers = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> {
+            if (!gzip || !(name.equalsIgnoreCase("Content-Encoding") || name.equalsIgnoreCase("Content-Length"))) {
+                values.forEach(value -> headers.add(new Header(name, value)));
+            }
+        });
+        String protocol = response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        return new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine(protocol + " " + response.statusCode())
+                .setHeaders(new Headers(headers))
+                .setContentType(response.headers().firstValue("Content-Type").orElse("application/json"))
+                .setBody(body)
+                .build();
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close response body: {}", e.getMessage());
+        }
+    }
+
+    // Reads the gzip header on first use, so nothing blocks on the thread that completes the response
+    private static final class GunzipOnRead extends InputStream {
+        private final InputStream compressed;
+        private InputStream decompressed;
+
+        private GunzipOnRead(InputStream compressed) {
+            this.compressed = compressed;
+        }
+
+        private InputStream stream() throws IOException {
+            if (decompressed == null) {
+                decompressed = new GZIPInputStream(compressed);
+            }
+            return decompressed;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return stream().read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return stream().read(buffer, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            (decompressed != null ? decompressed : compressed).close();
+        }
+    }
+}
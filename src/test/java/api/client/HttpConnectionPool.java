@@ -0,0 +1,144 @@
+package api.client;
+
+import config.ApiConfigManager;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ClientConnectionOperator;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.OperatedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.DefaultClientConnectionOperator;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One bounded pool of keep-alive connections for every Rest Assured request in the JVM. Each request
+ * gets its own lightweight client, so no client state is shared between threads, but all of them lease
+ * connections from the same pool and TLS sessions from the same {@link SSLContext} cache.
+ */
+@SuppressWarnings("deprecation") // Rest Assured 5 still requires the HttpClient 4 AbstractHttpClient API
+public final class HttpConnectionPool {
+    private static final Logger logger = LoggerFactory.getLogger(HttpConnectionPool.class);
+    private static final ApiConfigManager config = ApiConfigManager.getInstance();
+
+    private static final AtomicLong requests = new AtomicLong();
+    private static final AtomicLong opened = new AtomicLong();
+    private static final AtomicLong maxPending = new AtomicLong();
+    private static final PoolingClientConnectionManager manager = createManager();
+
+    private HttpConnectionPool() {
+    }
+
+    /**
+     * Rest Assured client factory; cheap, as connections live in the shared pool.
+     * @return A new client backed by the shared pool
+     */
+    static HttpClient newClient() {
+        DefaultHttpClient client = new DefaultHttpClient(manager);
+        HttpConnectionParams.setConnectionTimeout(client.getParams(), config.getInt("api.http.connect.timeout.ms", 10000));
+        HttpConnectionParams.setSoTimeout(client.getParams(), config.getInt("api.http.socket.timeout.ms", 30000));
+        HttpConnectionParams.setStaleCheckingEnabled(client.getParams(), true);
+        client.getParams().setLongParameter(ClientPNames.CONN_MANAGER_TIMEOUT, config.getInt("api.http.lease.timeout.ms", 10000));
+        client.setKeepAliveStrategy(HttpConnectionPool::keepAlive);
+        return client;
+    }
+
+    /**
+     * @return Pool usage for the suite-end log
+     */
+    public static String stats() {
+        PoolStats pool = manager.getTotalStats();
+        long sent = requests.get();
+        long reused = Math.max(0, sent - opened.get());
+        return String.format("API connections: %d requests over %d connections (reuse ratio %.2f), "
+                        + "%d leased, %d pending (peak %d), %d idle of max %d",
+                sent, opened.get(), sent == 0 ? 0.0 : (double) reused / sent,
+                pool.getLeased(), pool.getPending(), maxPending.get(), pool.getAvailable(), pool.getMax());
+    }
+
+    /**
+     * Closes idle connections; leased ones are left to finish. Called at suite end.
+     */
+    public static void closeIdle() {
+        manager.closeExpiredConnections();
+        manager.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+    }
+
+    private static PoolingClientConnectionManager createManager() {
+        SchemeRegistry schemes = new SchemeRegistry();
+        schemes.register(new Scheme("http", 80, PlainSocketFactory.getSocketFactory()));
+        schemes.register(new Scheme("https", 443, new SSLSocketFactory(sslContext())));
+        PoolingClientConnectionManager pool = new PoolingClientConnectionManager(schemes,
+                config.getInt("api.http.connection.ttl.ms", 300000), TimeUnit.MILLISECONDS) {
+            @Override
+            public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+                requests.incrementAndGet();
+                maxPending.accumulateAndGet(getTotalStats().getPending(), Math::max);
+                return super.requestConnection(route, state);
+            }
+
+            @Override
+            protected ClientConnectionOperator createConnectionOperator(SchemeRegistry registry) {
+                return new DefaultClientConnectionOperator(registry) {
+                    @Override
+                    public OperatedClientConnection createConnection() {
+                        opened.incrementAndGet();
+                        return super.createConnection();
+                    }
+                };
+            }
+        };
+        pool.setMaxTotal(config.getInt("api.http.max.total", 32));
+        pool.setDefaultMaxPerRoute(config.getInt("api.http.max.per.route", 16));
+        logger.info("API connection pool created: max {} total, {} per route", pool.getMaxTotal(), pool.getDefaultMaxPerRoute());
+        return pool;
+    }
+
+    // One context, so a reconnect to the same host resumes the cached TLS session instead of a full handshake
+    private static SSLContext sslContext() {
+        try {
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, null, null);
+            context.getClientSessionContext().setSessionCacheSize(config.getInt("api.http.tls.session.cache", 256));
+            context.getClientSessionContext().setSessionTimeout(config.getInt("api.http.tls.session.timeout.s", 3600));
+            return context;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to create TLS context", e);
+        }
+    }
+
+    // Honours the server's Keep-Alive timeout, capped by api.http.keepalive.ms
+    private static long keepAlive(HttpResponse response, HttpContext context) {
+        long limit = config.getInt("api.http.keepalive.ms", 30000);
+        BasicHeaderElementIterator elements = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+        while (elements.hasNext()) {
+            HeaderElement element = elements.nextElement();
+            if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                try {
+                    return Math.min(limit, Long.parseLong(element.getValue()) * 1000);
+                } catch (NumberFormatException e) {
+                    // keep the default
+                }
+            }
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,195 @@
+package api.client;
+
+import api.Json;
+import api.helpers.ResponseValidator;
+import api.models.responses.Paginated;
+import config.ApiConfigManager;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Crawls every page of a paginated list endpoint. The first page gives {@code total_pages}; the rest are
+ * fetched concurrently, at most {@code concurrency} at a time, and handed out as a lazy stream. Ordered
+ * delivery returns pages in page order, streaming delivery in completion order. Nothing is requested until
+ * the stream is consumed, and at most {@code concurrency} pages are held in memory.
+ * @param <P> Page model
+ * @param <T> Item type
+ */
+public final class PageCrawler<P extends Paginated<T>, T> {
+    private static final Logger logger = LoggerFactory.getLogger(PageCrawler.class);
+    private static final ApiConfigManager config = ApiConfigManager.getInstance();
+
+    private final IntFunction<CompletableFuture<Response>> fetch;
+    private final Class<P> type;
+    private String schemaPath;
+    private int concurrency = config.getInt("api.crawl.max.concurrent", 4);
+    private boolean ordered = config.getBoolean("api.crawl.ordered", true);
+
+    private PageCrawler(IntFunction<CompletableFuture<Response>> fetch, Class<P> type) {
+        this.fetch = fetch;
+        this.type = type;
+    }
+
+    /**
+     * Creates a crawler.
+     * @param fetch Sends the request for a 1-based page number (e.g., userListRequest::listUsersAsync)
+     * @param type Page model class (e.g., UserListResponse.class)
+     * @return Crawler with the configured concurrency and delivery order
+     */
+    public static <P extends Paginated<T>, T> PageCrawler<P, T> of(IntFunction<CompletableFuture<Response>> fetch, Class<P> type) {
+        return new PageCrawler<>(fetch, type);
+    }
+
+    /**
+     * @param schemaPath Schema every page is validated against, or null to only check the status code
+     * @return This crawler
+     */
+    public PageCrawler<P, T> validate(String schemaPath) {
+        this.schemaPath = schemaPath;
+        return this;
+    }
+
+    /**
+     * @param limit Maximum number of pages requested at once
+     * @return This crawler
+     */
+    public PageCrawler<P, T> concurrency(int limit) {
+        this.concurrency = Math.max(1, limit);
+        return this;
+    }
+
+    /**
+     * @param ordered true to deliver pages in page order, false to deliver them as they arrive
+     * @return This crawler
+     */
+    public PageCrawler<P, T> ordered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * @return Lazy stream of pages, ordered only with ordered delivery; closing it cancels the requests still in flight
+     */
+    public Stream<P> pages() {
+        Crawl crawl = new Crawl();
+        return StreamSupport.stream(crawl, false).onClose(crawl::cancel);
+    }
+
+    /**
+     * @return Lazy stream of the items of every page
+     */
+    public Stream<T> stream() {
+        return pages().flatMap(page -> page.getData().stream());
+    }
+
+    private CompletableFuture<Response> send(int page) {
+        logger.debug("Crawling page {} of {}", page, type.getSimpleName());
+        return fetch.apply(page);
+    }
+
+    // Bound on the completing thread, so parsing runs in parallel with the other requests
+    private CompletableFuture<P> bind(CompletableFuture<Response> sent) {
+        return sent.thenApply(response -> {
+            if (schemaPath != null) {
+                return ResponseValidator.validateResponse(response, 200, schemaPath, type);
+            }
+            ResponseValidator.validateStatusCode(response, 200);
+            return Json.bind(Json.parse(response), type);
+        });
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private final class Crawl extends Spliterators.AbstractSpliterator<P> {
+        // Ordered: futures in page order; streaming: futures in completion order
+        private final Queue<CompletableFuture<P>> window = new ArrayDeque<>();
+        private final BlockingQueue<CompletableFuture<P>> completed = new LinkedBlockingQueue<>();
+        // Bound page futures to their transport futures; cancelling a derived future does not reach the transport
+        private final Map<CompletableFuture<P>, CompletableFuture<Response>> launched = new HashMap<>();
+        private int totalPages = -1;
+        private int nextPage = 2;
+        private int delivered;
+
+        Crawl() {
+            super(Long.MAX_VALUE, ordered ? Spliterator.ORDERED | Spliterator.NONNULL : Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super P> action) {
+            if (totalPages < 0) {
+                P first = join(bind(send(1)));
+                totalPages = Math.max(1, first.getTotalPages());
+                logger.info("Crawling {} pages of {}, {} at a time, {}", totalPages, type.getSimpleName(), concurrency,
+                        ordered ? "in page order" : "in completion order");
+                delivered = 1;
+                fill();
+                action.accept(first);
+                return true;
+            }
+            if (delivered >= totalPages) {
+                return false;
+            }
+            CompletableFuture<P> next;
+            try {
+                next = ordered ? window.remove() : completed.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new IllegalStateException("Interrupted while crawling pages", e);
+            }
+            launched.remove(next);
+            P page = join(next);
+            delivered++;
+            fill();
+            action.accept(page);
+            return true;
+        }
+
+        // Keeps up to concurrency pages requested but not yet handed out
+        private void fill() {
+            while (nextPage <= totalPages && nextPage - 1 - delivered < concurrency) {
+                CompletableFuture<Response> sent = send(nextPage++);
+                CompletableFuture<P> future = bind(sent);
+                launched.put(future, sent);
+                if (ordered) {
+                    window.add(future);
+                } else {
+                    future.whenComplete((page, error) -> completed.add(future));
+                }
+            }
+        }
+
+        void cancel() {
+            launched.values().forEach(sent -> sent.cancel(true));
+            launched.clear();
+        }
+    }
+}
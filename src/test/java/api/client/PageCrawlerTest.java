@@ -0,0 +1,138 @@
+package api.client;
+
+import api.models.responses.resource.list.ResourceDataResponse;
+import api.models.responses.resource.list.ResourceListResponse;
+import io.qameta.allure.Feature;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class PageCrawlerTest {
+    private static final int TOTAL_PAGES = 6;
+
+    // Transport futures by page, completed by the test to control arrival order
+    private static final class FakeTransport {
+        private final Map<Integer, CompletableFuture<Response>> sent = new ConcurrentHashMap<>();
+
+        CompletableFuture<Response> fetch(int page) {
+            CompletableFuture<Response> future = new CompletableFuture<>();
+            sent.put(page, future);
+            if (page == 1) {
+                future.complete(page(page));
+            }
+            return future;
+        }
+
+        void complete(int page) {
+            sent.get(page).complete(page(page));
+        }
+
+        PageCrawler<ResourceListResponse, ResourceDataResponse> crawler(int concurrency, boolean ordered) {
+            return PageCrawler.<ResourceListResponse, ResourceDataResponse>of(this::fetch, ResourceListResponse.class)
+                    .concurrency(concurrency)
+                    .ordered(ordered);
+        }
+    }
+
+    private static Response page(int page) {
+        String body = "{\"page\":" + page + ",\"per_page\":1,\"total\":" + TOTAL_PAGES + ",\"total_pages\":" + TOTAL_PAGES
+                + ",\"data\":[{\"id\":" + page + ",\"name\":\"r" + page + "\"}]}";
+        return new ResponseBuilder()
+                .setStatusCode(200)
+                .setStatusLine("HTTP/1.1 200")
+                .setContentType("application/json")
+                .setBody(body)
+                .build();
+    }
+
+    @Test(description = "Ordered delivery returns pages in page order whatever order they arrive in", groups = {"unit"})
+    @Feature("Page Crawler")
+    public void testOrderedDelivery() {
+        FakeTransport transport = new FakeTransport();
+        try (Stream<ResourceListResponse> pages = transport.crawler(TOTAL_PAGES, true).pages()) {
+            Iterator<ResourceListResponse> iterator = pages.iterator();
+            Assert.assertEquals(iterator.next().getPage(), 1);
+            for (int page = TOTAL_PAGES; page >= 2; page--) {
+                transport.complete(page);
+            }
+            List<Integer> order = new ArrayList<>();
+            iterator.forEachRemaining(next -> order.add(next.getPage()));
+            Assert.assertEquals(order, List.of(2, 3, 4, 5, 6));
+        }
+    }
+
+    @Test(description = "Streaming delivery returns pages in the order they arrive", groups = {"unit"})
+    @Feature("Page Crawler")
+    public void testStreamingDelivery() {
+        FakeTransport transport = new FakeTransport();
+        try (Stream<ResourceListResponse> pages = transport.crawler(TOTAL_PAGES, false).pages()) {
+            Iterator<ResourceListResponse> iterator = pages.iterator();
+            Assert.assertEquals(iterator.next().getPage(), 1);
+            for (int page : List.of(4, 2, 6, 3, 5)) {
+                transport.complete(page);
+                Assert.assertEquals(iterator.next().getPage(), page);
+            }
+            Assert.assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Test(description = "Only ordered delivery reports an encounter order", groups = {"unit"})
+    @Feature("Page Crawler")
+    public void testCharacteristics() {
+        FakeTransport transport = new FakeTransport();
+        try (Stream<ResourceListResponse> ordered = transport.crawler(2, true).pages();
+             Stream<ResourceListResponse> streaming = transport.crawler(2, false).pages()) {
+            Assert.assertTrue(ordered.spliterator().hasCharacteristics(Spliterator.ORDERED));
+            Assert.assertFalse(streaming.spliterator().hasCharacteristics(Spliterator.ORDERED));
+        }
+    }
+
+    @Test(description = "No more than the concurrency limit of pages is requested ahead of the consumer", groups = {"unit"})
+    @Feature("Page Crawler")
+    public void testConcurrencyLimit() {
+        FakeTransport transport = new FakeTransport();
+        try (Stream<ResourceListResponse> pages = transport.crawler(2, true).pages()) {
+            Assert.assertTrue(transport.sent.isEmpty(), "Nothing is requested before the stream is consumed");
+            Iterator<ResourceListResponse> iterator = pages.iterator();
+            iterator.next();
+            Assert.assertEquals(transport.sent.keySet(), Set.of(1, 2, 3));
+            transport.complete(2);
+            iterator.next();
+            Assert.assertEquals(transport.sent.keySet(), Set.of(1, 2, 3, 4));
+        }
+    }
+
+    @Test(description = "Closing the stream cancels the transport requests still in flight", groups = {"unit"})
+    @Feature("Page Crawler")
+    public void testCloseCancelsTransport() {
+        FakeTransport transport = new FakeTransport();
+        Stream<ResourceListResponse> pages = transport.crawler(3, false).pages();
+        pages.iterator().next();
+        pages.close();
+        Assert.assertEquals(transport.sent.size(), 4);
+        for (int page = 2; page <= 4; page++) {
+            Assert.assertTrue(transport.sent.get(page).isCancelled(), "Page " + page + " should be cancelled");
+        }
+    }
+
+    @Test(description = "Items of every page are streamed once", groups = {"unit"})
+    @Feature("Page Crawler")
+    public void testItems() {
+        PageCrawler<ResourceListResponse, ResourceDataResponse> crawler = PageCrawler.of(
+                page -> CompletableFuture.completedFuture(page(page)), ResourceListResponse.class);
+        List<Integer> ids = crawler.concurrency(2).stream().map(ResourceDataResponse::getId).collect(Collectors.toList());
+        Assert.assertEquals(ids, List.of(1, 2, 3, 4, 5, 6));
+    }
+}
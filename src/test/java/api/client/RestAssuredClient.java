@@ -2,6 +2,10 @@ package api.client;
 
 import config.ApiConfigManager;
 import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.LogConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 import org.slf4j.Logger;
@@ -9,10 +13,13 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Provides a thread-safe Rest Assured client for API requests with centralized configuration.
+ * The base specification is built once and never handed out; every request starts from a copy of it
+ * and sends over the shared {@link HttpConnectionPool}.
  */
 public class RestAssuredClient {
     private static final Logger logger = LoggerFactory.getLogger(RestAssuredClient.class);
     private static final ApiConfigManager config = ApiConfigManager.getInstance();
+    private static final RequestSpecification BASE_SPEC = buildBaseSpec();
 
     /**
      * Creates a new RequestSpecification for an API request.
@@ -21,15 +28,9 @@ public class RestAssuredClient {
      */
     public RequestSpecification createRequestSpec(ContentType contentType) {
         logger.debug("Creating RequestSpecification for thread {}", Thread.currentThread().getName());
-        RequestSpecification spec = RestAssured.given()
-                .baseUri(config.get("api.url"))
-                .header("X-API-Key", config.get("api.key"))
-                .contentType(contentType != null ? contentType : ContentType.JSON)
-                .accept(ContentType.JSON);
-
-        RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
-        logger.debug("RequestSpecification created: {}", spec);
-        return spec;
+        return RestAssured.given()
+                .spec(BASE_SPEC)
+                .contentType(contentType != null ? contentType : ContentType.JSON);
     }
 
     /**
@@ -39,4 +40,19 @@ public class RestAssuredClient {
     public RequestSpecification createRequestSpec() {
         return createRequestSpec(ContentType.JSON);
     }
-}
\ No newline at end of file
+
+    // Logging on failed validation is part of this spec's config, not RestAssured's global state
+    private static RequestSpecification buildBaseSpec() {
+        RestAssuredConfig restAssuredConfig = RestAssuredConfig.config()
+                .httpClient(HttpClientConfig.httpClientConfig().httpClientFactory(HttpConnectionPool::newClient))
+                .logConfig(LogConfig.logConfig().enableLoggingOfRequestAndResponseIfValidationFails());
+        RequestSpecification spec = new RequestSpecBuilder()
+                .setBaseUri(config.get("api.url"))
+                .addHeader("X-API-Key", config.get("api.key"))
+                .setAccept(ContentType.JSON)
+                .setConfig(restAssuredConfig)
+                .build();
+        logger.info("Base RequestSpecification built for {}", config.get("api.url"));
+        return spec;
+    }
+}
@@ -0,0 +1,46 @@
+package api.client;
+
+import factory.VirtualThreads;
+import io.restassured.response.Response;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Blocking transport over {@link RestAssuredClient}. Async requests each block their own thread,
+ * virtual where the JVM supports it; concurrency is bounded by the caller and the connection pool.
+ */
+public final class RestAssuredTransport implements ApiTransport {
+    private static final ExecutorService executor = VirtualThreads.newExecutor("restassured-");
+    private static final RestAssuredTransport instance = new RestAssuredTransport();
+    private final RestAssuredClient client = new RestAssuredClient();
+
+    private RestAssuredTransport() {
+    }
+
+    /**
+     * @return The shared instance
+     */
+    public static RestAssuredTransport getInstance() {
+        return instance;
+    }
+
+    @Override
+    public Response get(String path, Map<String, ?> queryParams) {
+        return client.createRequestSpec()
+                .queryParams(queryParams)
+                .when()
+                .get(path);
+    }
+
+    @Override
+    public CompletableFuture<Response> getAsync(String path, Map<String, ?> queryParams) {
+        return CompletableFuture.supplyAsync(() -> get(path, queryParams), executor);
+    }
+
+    @Override
+    public String name() {
+        return "restassured";
+    }
+}
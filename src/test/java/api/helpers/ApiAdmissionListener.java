@@ -0,0 +1,36 @@
+package api.helpers;
+
+import factory.AdmissionController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.util.Arrays;
+
+/**
+ * Admits tests of the {@code api} group through {@link AdmissionController} as lightweight slots,
+ * so they share capacity with the browser tests. UI tests are admitted when their browser context is created.
+ */
+public class ApiAdmissionListener implements IInvokedMethodListener {
+    private static final Logger logger = LoggerFactory.getLogger(ApiAdmissionListener.class);
+    private static final ThreadLocal<AdmissionController.Permit> permit = new ThreadLocal<>();
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod() && Arrays.asList(method.getTestMethod().getGroups()).contains("api")) {
+            permit.set(AdmissionController.acquire("api"));
+            logger.debug("API test {} admitted for thread {}", method.getTestMethod().getMethodName(), Thread.currentThread().getName());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        AdmissionController.Permit held = permit.get();
+        if (method.isTestMethod() && held != null) {
+            held.release();
+            permit.remove();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package api.helpers;
+
+import api.client.HttpClientTransport;
+import api.client.HttpConnectionPool;
+import config.ApiConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Compiles the JSON schemas at suite start when {@code schema.preload} is set, and logs API transport
+ * and schema statistics and releases idle connections at suite end.
+ */
+public class ApiLifecycleListener implements ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(ApiLifecycleListener.class);
+
+    @Override
+    public void onStart(ISuite suite) {
+        ApiConfigManager config = ApiConfigManager.getInstance();
+        if (config.getBoolean("schema.preload", false)) {
+            SchemaCache.preload(config.get("schema.root", "schemas"));
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        logger.info(HttpConnectionPool.stats());
+        String async = HttpClientTransport.stats();
+        if (async != null) {
+            logger.info(async);
+        }
+        logger.info(SchemaCache.stats());
+        HttpConnectionPool.closeIdle();
+    }
+}
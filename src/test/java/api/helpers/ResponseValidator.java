@@ -1,13 +1,15 @@
 package api.helpers;
 
+import api.Json;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.JsonSchemaException;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static io.restassured.module.jsv.JsonSchemaValidator.matchesJsonSchemaInClasspath;
-
 /**
  * Provides utility methods to validate API responses for status codes and JSON schema compliance.
+ * Schemas come compiled from {@link SchemaCache}; bodies are parsed once through {@link Json}.
  */
 public class ResponseValidator {
     private static final Logger logger = LoggerFactory.getLogger(ResponseValidator.class);
@@ -19,16 +21,40 @@ public class ResponseValidator {
      * @param schemaPath Path to the JSON schema file in classpath (e.g., "schemas/user-list-schema.json")
      */
     public static void validateResponse(Response response, int expectedStatus, String schemaPath) {
+        validated(response, expectedStatus, schemaPath);
+    }
+
+    /**
+     * Validates an API response like {@link #validateResponse(Response, int, String)} and binds it to a model
+     * from the same parse.
+     * @param response The API response to validate
+     * @param expectedStatus The expected HTTP status code (e.g., 200, 201)
+     * @param schemaPath Path to the JSON schema file in classpath
+     * @param type Model class (e.g., UserListResponse.class)
+     * @return Bound model
+     */
+    public static <T> T validateResponse(Response response, int expectedStatus, String schemaPath, Class<T> type) {
+        return Json.bind(validated(response, expectedStatus, schemaPath), type);
+    }
+
+    // A streamed body can only be read once, so failures log the parsed tree rather than the response
+    private static JsonNode validated(Response response, int expectedStatus, String schemaPath) {
         logger.info("Validating response: statusCode={}, schemaPath={}", expectedStatus, schemaPath);
+        JsonNode body = null;
         try {
-            response.then()
-                    .statusCode(expectedStatus)
-                    .body(matchesJsonSchemaInClasspath(schemaPath));
+            response.then().statusCode(expectedStatus);
+            body = Json.parse(response);
+            Json.validate(body, schemaPath);
             logger.info("Response validated successfully");
+            return body;
+        } catch (JsonSchemaException e) {
+            logger.error("Response does not match schema {}: {}", schemaPath, e.getMessage());
+            logger.debug("Response body: {}", body);
+            throw new RuntimeException("Response validation failed: " + e.getMessage(), e);
         } catch (Exception e) {
             logger.error("Failed to validate response: {}", e.getMessage());
             logger.debug("Schema path attempted: {}", schemaPath);
-            logger.debug("Response body: {}", response.asString());
+            logger.debug("Response body: {}", body != null ? body : response.asString());
             throw new RuntimeException("Response validation failed", e);
         }
     }
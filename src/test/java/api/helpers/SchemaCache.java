@@ -0,0 +1,186 @@
+package api.helpers;
+
+import api.Json;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.AbsoluteIri;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaException;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.SpecVersion;
+import com.networknt.schema.ValidationMessage;
+import com.networknt.schema.resource.InputStreamSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compiled JSON schemas keyed by classpath path (e.g., "schemas/get/requests/user-list-schema.json").
+ * A schema is read, its {@code $ref}s resolved relative to its own location and compiled once; the
+ * compiled {@link JsonSchema} validates Jackson trees, is immutable and shared by all threads.
+ * Referenced documents are fetched once too.
+ */
+public final class SchemaCache {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaCache.class);
+    private static final Map<String, JsonSchema> schemas = new ConcurrentHashMap<>();
+    private static final Map<String, byte[]> referenced = new ConcurrentHashMap<>();
+    private static final JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7,
+            builder -> builder.schemaLoaders(loaders -> loaders.add(SchemaCache::fetch)));
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong compileNanos = new AtomicLong();
+
+    private SchemaCache() {
+    }
+
+    /**
+     * Returns the compiled schema, compiling it on first use.
+     * @param schemaPath Path to the JSON schema file in classpath
+     * @return Compiled schema
+     */
+    public static JsonSchema get(String schemaPath) {
+        JsonSchema schema = schemas.get(schemaPath);
+        if (schema != null) {
+            hits.incrementAndGet();
+            return schema;
+        }
+        misses.incrementAndGet();
+        return schemas.computeIfAbsent(schemaPath, SchemaCache::compile);
+    }
+
+    /**
+     * Validates a parsed JSON value against a schema.
+     * @param schemaPath Path to the JSON schema file in classpath
+     * @param json Parsed body
+     * @throws JsonSchemaException listing every violation if the value does not match
+     */
+    public static void validate(String schemaPath, JsonNode json) {
+        Set<ValidationMessage> errors = get(schemaPath).validate(json);
+        if (!errors.isEmpty()) {
+            throw new JsonSchemaException(errors.stream()
+                    .map(ValidationMessage::getMessage)
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    /**
+     * Compiles every {@code .json} file below a classpath directory. Called at suite start.
+     * @param root Classpath directory (e.g., "schemas")
+     * @return Number of schemas compiled
+     */
+    public static int preload(String root) {
+        long start = System.nanoTime();
+        List<String> paths = new ArrayList<>();
+        try {
+            Enumeration<URL> roots = SchemaCache.class.getClassLoader().getResources(root);
+            while (roots.hasMoreElements()) {
+                URI uri = roots.nextElement().toURI();
+                if ("jar".equals(uri.getScheme())) {
+                    paths.addAll(listJar(uri, root));
+                } else {
+                    paths.addAll(list(Paths.get(uri), root));
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            logger.warn("Failed to list schemas under {}: {}", root, e.getMessage());
+        }
+        paths.forEach(path -> schemas.computeIfAbsent(path, SchemaCache::compile));
+        logger.info("Preloaded {} schemas from {} in {} ms", paths.size(), root,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return paths.size();
+    }
+
+    /**
+     * @return Cache totals for the suite-end log
+     */
+    public static String stats() {
+        return String.format("Schemas: %d cached, %d hits, %d misses, %d referenced documents, compile total %d ms",
+                schemas.size(), hits.get(), misses.get(), referenced.size(),
+                TimeUnit.NANOSECONDS.toMillis(compileNanos.get()));
+    }
+
+    private static JsonSchema compile(String schemaPath) {
+        long start = System.nanoTime();
+        URL url = SchemaCache.class.getClassLoader().getResource(schemaPath);
+        if (url == null) {
+            throw new IllegalArgumentException("Schema file not found: " + schemaPath);
+        }
+        try (InputStream input = url.openStream()) {
+            JsonSchema schema = factory.getSchema(SchemaLocation.of(url.toString()), Json.mapper().readTree(input));
+            // Resolves every $ref now instead of on the first validation
+            schema.initializeValidators();
+            long took = System.nanoTime() - start;
+            compileNanos.addAndGet(took);
+            logger.debug("Compiled schema {} in {} us", schemaPath, TimeUnit.NANOSECONDS.toMicros(took));
+            return schema;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read schema " + schemaPath, e);
+        }
+    }
+
+    // $ref targets, relative ones resolved against the classpath URL of the referring schema;
+    // IRIs that are no URL are left to the validator's own loaders
+    private static InputStreamSource fetch(AbsoluteIri iri) {
+        String url = iri.toString();
+        try {
+            new URL(url);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+        byte[] document = referenced.computeIfAbsent(url, key -> {
+            try (InputStream input = new URL(key).openStream()) {
+                return input.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to fetch referenced schema " + key, e);
+            }
+        });
+        return () -> new ByteArrayInputStream(document);
+    }
+
+    // A jar file system opened elsewhere (e.g. by another library) is reused and left open
+    private static List<String> listJar(URI uri, String root) throws IOException {
+        FileSystem jar;
+        try {
+            jar = FileSystems.newFileSystem(uri, Map.of());
+        } catch (FileSystemAlreadyExistsException e) {
+            return list(FileSystems.getFileSystem(uri).getPath(root), root);
+        }
+        try (jar) {
+            return list(jar.getPath(root), root);
+        }
+    }
+
+    private static List<String> list(Path directory, String root) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(file -> file.toString().endsWith(".json"))
+                    .map(file -> root + "/" + directory.relativize(file).toString().replace('\\', '/'))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package api.models.responses;
+
+import java.util.List;
+
+/**
+ * A page of a paginated list response from reqres.in.
+ * @param <T> Item type
+ */
+public interface Paginated<T> {
+
+    int getPage();
+
+    int getTotalPages();
+
+    List<T> getData();
+}
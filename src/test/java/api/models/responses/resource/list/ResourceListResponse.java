@@ -1,5 +1,6 @@
 package api.models.responses.resource.list;
 
+import api.models.responses.Paginated;
 import api.models.responses.user.list.SupportResponse;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
@@ -12,7 +13,7 @@ import java.util.List;
  */
 @Getter
 @Setter
-public class ResourceListResponse {
+public class ResourceListResponse implements Paginated<ResourceDataResponse> {
     @JsonProperty("page")
     private int page;
     @JsonProperty("per_page")
@@ -1,5 +1,6 @@
 package api.models.responses.user.list;
 
+import api.models.responses.Paginated;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
@@ -7,7 +8,7 @@ import java.util.List;
 /**
  * Represents the List Users API response from reqres.in, including pagination and user data.
  */
-public class UserListResponse {
+public class UserListResponse implements Paginated<UserDataResponse> {
     @JsonProperty("page")
     private int page;
     @JsonProperty("per_page")
@@ -24,6 +25,7 @@ public class UserListResponse {
     // Default constructor for Jackson
     public UserListResponse() {}
 
+    @Override
     public int getPage() {
         return page;
     }
@@ -48,6 +50,7 @@ public class UserListResponse {
         this.total = total;
     }
 
+    @Override
     public int getTotalPages() {
         return totalPages;
     }
@@ -56,6 +59,7 @@ public class UserListResponse {
         this.totalPages = totalPages;
     }
 
+    @Override
     public List<UserDataResponse> getData() {
         return data;
     }
@@ -0,0 +1,53 @@
+package api.requests;
+
+import api.client.ApiTransport;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handles API requests for listing resources from reqres.in.
+ */
+public class ResourceListRequest {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceListRequest.class);
+    private final ApiTransport transport;
+
+    /**
+     * Constructs a ResourceListRequest on the transport selected by {@code api.transport}.
+     */
+    public ResourceListRequest() {
+        this(ApiTransport.configured());
+    }
+
+    /**
+     * Constructs a ResourceListRequest on the given transport.
+     * @param transport Transport used to send the requests
+     */
+    public ResourceListRequest(ApiTransport transport) {
+        this.transport = transport;
+        logger.debug("ResourceListRequest initialized with transport: {}", transport.name());
+    }
+
+    /**
+     * Sends a GET request to retrieve a list of resources for the specified page.
+     * @param page Page number for pagination (e.g., 1, 2)
+     * @return Response containing the list of resources
+     */
+    public Response listResources(int page) {
+        logger.info("Sending GET request to list resources for page: {}", page);
+        return transport.get("/unknown", Map.of("page", page));
+    }
+
+    /**
+     * Sends a GET request for the specified page without waiting for the response.
+     * @param page Page number for pagination (e.g., 1, 2)
+     * @return Future completed with the response
+     */
+    public CompletableFuture<Response> listResourcesAsync(int page) {
+        logger.debug("Sending async GET request to list resources for page: {}", page);
+        return transport.getAsync("/unknown", Map.of("page", page));
+    }
+}
@@ -1,24 +1,34 @@
 package api.requests;
 
-import api.client.RestAssuredClient;
+import api.client.ApiTransport;
 import io.restassured.response.Response;
-import io.restassured.specification.RequestSpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Handles API requests for listing users from reqres.in.
  */
 public class UserListRequest {
     private static final Logger logger = LoggerFactory.getLogger(UserListRequest.class);
-    private final RestAssuredClient client;
+    private final ApiTransport transport;
 
     /**
-     * Constructs a UserListRequest.
+     * Constructs a UserListRequest on the transport selected by {@code api.transport}.
      */
     public UserListRequest() {
-        this.client = new RestAssuredClient();
-        logger.debug("UserListRequest initialized with client: {}", client);
+        this(ApiTransport.configured());
+    }
+
+    /**
+     * Constructs a UserListRequest on the given transport.
+     * @param transport Transport used to send the requests
+     */
+    public UserListRequest(ApiTransport transport) {
+        this.transport = transport;
+        logger.debug("UserListRequest initialized with transport: {}", transport.name());
     }
 
     /**
@@ -28,14 +38,7 @@ public class UserListRequest {
      */
     public Response listUsers(int page) {
         logger.info("Sending GET request to list users for page: {}", page);
-        RequestSpecification spec = client.createRequestSpec();
-        logger.debug("Using RequestSpecification: {}", spec);
-        Response response = spec
-                .queryParam("page", page)
-                .when()
-                .get("/users");
-        logger.debug("Response received: StatusCode={}, Body={}", response.getStatusCode(), response.asString());
-        return response;
+        return logged(transport.get("/users", Map.of("page", page)));
     }
 
     /**
@@ -44,12 +47,23 @@ public class UserListRequest {
      */
     public Response listUsers() {
         logger.info("Sending GET request to list users without page parameter");
-        RequestSpecification spec = client.createRequestSpec();
-        logger.debug("Using RequestSpecification: {}", spec);
-        Response response = spec
-                .when()
-                .get("/users");
-        logger.debug("Response received: StatusCode={}, Body={}", response.getStatusCode(), response.asString());
+        return logged(transport.get("/users", Map.of()));
+    }
+
+    /**
+     * Sends a GET request for the specified page without waiting for the response.
+     * @param page Page number for pagination (e.g., 1, 2)
+     * @return Future completed with the response
+     */
+    public CompletableFuture<Response> listUsersAsync(int page) {
+        logger.debug("Sending async GET request to list users for page: {}", page);
+        return transport.getAsync("/users", Map.of("page", page)).thenApply(this::logged);
+    }
+
+    private Response logged(Response response) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Response received: StatusCode={}, Body={}", response.getStatusCode(), response.asString());
+        }
         return response;
     }
-}
\ No newline at end of file
+}
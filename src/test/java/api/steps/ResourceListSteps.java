@@ -0,0 +1,49 @@
+package api.steps;
+
+import api.client.PageCrawler;
+import api.models.responses.resource.list.ResourceDataResponse;
+import api.models.responses.resource.list.ResourceListResponse;
+import api.requests.ResourceListRequest;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.stream.Stream;
+
+/**
+ * Defines reusable steps for testing the List Resources API from reqres.in.
+ */
+public class ResourceListSteps {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceListSteps.class);
+    private final ResourceListRequest resourceListRequest;
+
+    /**
+     * Constructs a ResourceListSteps instance with the provided ResourceListRequest.
+     * @param resourceListRequest ResourceListRequest for API calls
+     */
+    public ResourceListSteps(ResourceListRequest resourceListRequest) {
+        this.resourceListRequest = resourceListRequest;
+    }
+
+    /**
+     * Retrieves a list of resources for the specified page.
+     * @param page Page number for pagination (e.g., 1, 2)
+     * @return Raw Response from the API
+     */
+    public Response getResourceList(int page) {
+        logger.info("Retrieving resource list for page: {}", page);
+        return resourceListRequest.listResources(page);
+    }
+
+    /**
+     * Streams the resources of every page; pages are fetched concurrently as the stream is consumed.
+     * @param schemaPath Schema every page is validated against, or null to only check the status code
+     * @return Lazy stream of resources in page order
+     */
+    public Stream<ResourceDataResponse> getAllResources(String schemaPath) {
+        logger.info("Retrieving resources of all pages");
+        return PageCrawler.<ResourceListResponse, ResourceDataResponse>of(resourceListRequest::listResourcesAsync, ResourceListResponse.class)
+                .validate(schemaPath)
+                .stream();
+    }
+}
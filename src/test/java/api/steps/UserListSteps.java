@@ -1,10 +1,16 @@
 package api.steps;
 
+import api.client.PageCrawler;
+import api.models.responses.user.list.UserDataResponse;
+import api.models.responses.user.list.UserListResponse;
 import api.requests.UserListRequest;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
 /**
  * Defines reusable steps for testing the List Users API from reqres.in.
  */
@@ -38,4 +44,26 @@ public class UserListSteps {
         logger.info("Retrieving user list without page parameter");
         return userListRequest.listUsers();
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves a list of users for the specified page without blocking the calling thread.
+     * @param page Page number for pagination (e.g., 1, 2)
+     * @return Future completed with the raw Response
+     */
+    public CompletableFuture<Response> getUserListAsync(int page) {
+        logger.info("Retrieving user list asynchronously for page: {}", page);
+        return userListRequest.listUsersAsync(page);
+    }
+
+    /**
+     * Streams the users of every page; pages are fetched concurrently as the stream is consumed.
+     * @param schemaPath Schema every page is validated against, or null to only check the status code
+     * @return Lazy stream of users in page order
+     */
+    public Stream<UserDataResponse> getAllUsers(String schemaPath) {
+        logger.info("Retrieving users of all pages");
+        return PageCrawler.<UserListResponse, UserDataResponse>of(userListRequest::listUsersAsync, UserListResponse.class)
+                .validate(schemaPath)
+                .stream();
+    }
+}
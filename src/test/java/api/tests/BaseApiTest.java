@@ -44,4 +44,17 @@ public class BaseApiTest {
         logger.info("Asserting response: statusCode={}, schemaPath={}", expectedStatus, schemaPath);
         ResponseValidator.validateResponse(response, expectedStatus, schemaPath);
     }
-}
\ No newline at end of file
+
+    /**
+     * Asserts status code and JSON schema like {@link #assertResponse(Response, int, String)} and binds the body.
+     * @param response The API response to validate
+     * @param expectedStatus The expected HTTP status code (e.g., 200, 201)
+     * @param schemaPath Path to the JSON schema file in classpath
+     * @param type Model class (e.g., UserListResponse.class)
+     * @return Bound model
+     */
+    protected <T> T assertResponse(Response response, int expectedStatus, String schemaPath, Class<T> type) {
+        logger.info("Asserting response: statusCode={}, schemaPath={}, model={}", expectedStatus, schemaPath, type.getSimpleName());
+        return ResponseValidator.validateResponse(response, expectedStatus, schemaPath, type);
+    }
+}
@@ -1,20 +1,17 @@
 package api.tests;
 
+import api.Json;
 import com.microsoft.playwright.APIRequest;
 import com.microsoft.playwright.APIRequestContext;
 import com.microsoft.playwright.APIResponse;
 import com.microsoft.playwright.Playwright;
-import org.everit.json.schema.Schema;
-import org.everit.json.schema.loader.SchemaLoader;
-import org.json.JSONObject;
-import org.json.JSONTokener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
-import java.io.InputStream;
+import java.io.ByteArrayInputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -75,16 +72,9 @@ public class MinimalPlaywrightApiTest {
         }
 
         // Schema validation
-        try (InputStream schemaStream = getClass().getClassLoader().getResourceAsStream(schemaPath)) {
-            if (schemaStream == null) {
-                throw new AssertionError("Schema file not found: " + schemaPath);
-            }
-            JSONObject rawSchema = new JSONObject(new JSONTokener(schemaStream));
-            Schema schema = SchemaLoader.load(rawSchema);
-            String responseBody = response.text();
-            JSONObject jsonResponse = new JSONObject(new JSONTokener(responseBody));
-            schema.validate(jsonResponse);
-            logger.debug("JSON schema validation passed for response: {}", responseBody);
+        try {
+            Json.validate(Json.parse(new ByteArrayInputStream(response.body())), schemaPath);
+            logger.debug("JSON schema validation passed for response from {}", response.url());
         } catch (Exception e) {
             throw new AssertionError("JSON schema validation failed: " + e.getMessage());
         }
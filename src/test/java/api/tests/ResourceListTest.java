@@ -0,0 +1,34 @@
+package api.tests;
+
+import api.models.responses.resource.list.ResourceDataResponse;
+import api.models.responses.resource.list.ResourceListResponse;
+import api.requests.ResourceListRequest;
+import api.steps.ResourceListSteps;
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ResourceListTest extends BaseApiTest {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceListTest.class);
+
+    @Test(description = "Crawl all pages of resources",
+            groups = {"api", "regression"})
+    @Feature("Resource API")
+    @Description("Tests streaming the resources of every page, fetched concurrently")
+    public void testListAllResources() {
+        logger.info("Running testListAllResources on thread {}", Thread.currentThread().getName());
+        ResourceListSteps steps = new ResourceListSteps(new ResourceListRequest());
+        String schemaPath = "schemas/get/requests/resource-list-schema.json";
+        ResourceListResponse firstPage = assertResponse(steps.getResourceList(1), 200, schemaPath, ResourceListResponse.class);
+        List<ResourceDataResponse> resources = steps.getAllResources(schemaPath).collect(Collectors.toList());
+        Assert.assertEquals(resources.size(), firstPage.getTotal(), "Every resource should be returned once");
+        Assert.assertEquals(resources.stream().map(ResourceDataResponse::getId).distinct().count(), (long) resources.size(),
+                "Resource ids should be unique");
+    }
+}
@@ -1,16 +1,27 @@
 package api.tests;
 
 
+import api.client.HttpClientTransport;
+import api.models.responses.user.list.UserDataResponse;
+import api.models.responses.user.list.UserListResponse;
 import api.requests.UserListRequest;
 import api.steps.UserListSteps;
+import factory.VirtualThreads;
 import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 public class UserListTest extends BaseApiTest {
     private static final Logger logger = LoggerFactory.getLogger(UserListTest.class);
     private UserListSteps userListSteps;
@@ -37,6 +48,21 @@ public class UserListTest extends BaseApiTest {
         assertResponse(response, 200, "schemas/get/requests/user-list-schema.json");
     }
 
+    @Test(description = "Validate a page of users and bind it to the response model",
+            groups = {"api", "regression"})
+    @Feature("User API")
+    @Description("Tests that one parse of the body serves schema validation and model binding")
+    public void testListUsersBindsModel() {
+        logger.info("Running testListUsersBindsModel on thread {}", Thread.currentThread().getName());
+        UserListSteps steps = new UserListSteps(new UserListRequest());
+        int page = 2;
+        Response response = steps.getUserList(page);
+        UserListResponse users = assertResponse(response, 200, "schemas/get/requests/user-list-schema.json", UserListResponse.class);
+        Assert.assertEquals(users.getPage(), page, "Response should be for the requested page");
+        Assert.assertFalse(users.getData().isEmpty(), "Page should contain users");
+        Assert.assertTrue(users.getData().size() <= users.getPerPage(), "Page should not exceed per_page");
+    }
+
     @Test(description = "Send request to get list of users for specific page",
             groups = {"api", "regression"})
     @Feature("User API")
@@ -50,4 +76,50 @@ public class UserListTest extends BaseApiTest {
         Response response = userListSteps.getUserList();
         assertResponse(response, 200, "schemas/get/requests/user-list-schema.json");
     }
-}
\ No newline at end of file
+
+    @Test(description = "Send concurrent requests for several pages of users",
+            groups = {"api", "regression"})
+    @Feature("User API")
+    @Description("Tests retrieving several pages of users concurrently on virtual threads")
+    public void testListUsersPagesConcurrently() {
+        logger.info("Running testListUsersPagesConcurrently on thread {}", Thread.currentThread().getName());
+        UserListSteps steps = new UserListSteps(new UserListRequest());
+        List<Callable<Response>> requests = IntStream.rangeClosed(1, 4)
+                .mapToObj(page -> (Callable<Response>) () -> steps.getUserList(page))
+                .collect(Collectors.toList());
+        for (Response response : VirtualThreads.invokeAll(requests)) {
+            assertResponse(response, 200, "schemas/get/requests/user-list-schema.json");
+        }
+    }
+
+    @Test(description = "Send non-blocking requests for several pages of users",
+            groups = {"api", "regression"})
+    @Feature("User API")
+    @Description("Tests retrieving several pages of users through the async HttpClient transport")
+    public void testListUsersPagesAsync() {
+        logger.info("Running testListUsersPagesAsync on thread {}", Thread.currentThread().getName());
+        UserListSteps steps = new UserListSteps(new UserListRequest(HttpClientTransport.getInstance()));
+        List<CompletableFuture<Response>> responses = IntStream.rangeClosed(1, 4)
+                .mapToObj(steps::getUserListAsync)
+                .collect(Collectors.toList());
+        for (CompletableFuture<Response> response : responses) {
+            assertResponse(response.join(), 200, "schemas/get/requests/user-list-schema.json");
+        }
+    }
+
+    @Test(description = "Crawl all pages of users",
+            groups = {"api", "regression"})
+    @Feature("User API")
+    @Description("Tests streaming the users of every page, fetched concurrently")
+    public void testListAllUsers() {
+        logger.info("Running testListAllUsers on thread {}", Thread.currentThread().getName());
+        UserListSteps steps = new UserListSteps(new UserListRequest());
+        String schemaPath = "schemas/get/requests/user-list-schema.json";
+        UserListResponse firstPage = assertResponse(steps.getUserList(1), 200, schemaPath, UserListResponse.class);
+        List<Integer> ids = steps.getAllUsers(schemaPath)
+                .map(UserDataResponse::getId)
+                .collect(Collectors.toList());
+        Assert.assertEquals(ids.size(), firstPage.getTotal(), "Every user should be returned once");
+        Assert.assertEquals(ids.stream().distinct().count(), (long) ids.size(), "User ids should be unique");
+    }
+}
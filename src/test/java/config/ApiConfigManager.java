@@ -1,55 +1,26 @@
 package config;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
-
 /**
- * Manages API-specific configurations loaded from config.properties.
+ * Manages API-specific configurations.
  * Provides methods to access properties with type-safe retrieval and defaults.
- * Uses singleton pattern to ensure a single instance.
+ * Served from the same {@link ConfigSnapshot} as {@link ConfigManager}, so system properties,
+ * environment variables and profiles apply to API settings too.
  */
 public class ApiConfigManager {
-    private static final Logger logger = LoggerFactory.getLogger(ApiConfigManager.class);
-    private static final String CONFIG_FILE = "config.properties";
-    private static ApiConfigManager instance;
-    private final Properties properties;
+    private static final ApiConfigManager instance = new ApiConfigManager();
+    private final ConfigSnapshot snapshot = ConfigSnapshot.get();
 
-    // Private constructor to prevent instantiation
     private ApiConfigManager() {
-        properties = new Properties();
-        loadProperties();
     }
 
     /**
      * Returns the singleton instance of ApiConfigManager.
      * @return ApiConfigManager instance
      */
-    public static synchronized ApiConfigManager getInstance() {
-        if (instance == null) {
-            instance = new ApiConfigManager();
-        }
+    public static ApiConfigManager getInstance() {
         return instance;
     }
 
-    // Loads properties from config.properties
-    private void loadProperties() {
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE)) {
-            if (input == null) {
-                logger.error("Unable to find {}", CONFIG_FILE);
-                throw new IOException("Configuration file " + CONFIG_FILE + " not found");
-            }
-            properties.load(input);
-            logger.info("Loaded API configuration from {}", CONFIG_FILE);
-        } catch (IOException e) {
-            logger.error("Failed to load {}: {}", CONFIG_FILE, e.getMessage());
-            throw new RuntimeException("Failed to load configuration", e);
-        }
-    }
-
     /**
      * Retrieves a property value by key, returning null if not found.
      * @param key Property key
@@ -66,9 +37,7 @@ public class ApiConfigManager {
      * @return Property value or default
      */
     public String get(String key, String defaultValue) {
-        String value = properties.getProperty(key, defaultValue);
-        logger.debug("Retrieved property: {} = {}", key, value);
-        return value;
+        return snapshot.get(key, defaultValue);
     }
 
     /**
@@ -78,13 +47,7 @@ public class ApiConfigManager {
      * @return Integer value or default
      */
     public int getInt(String key, int defaultValue) {
-        String value = get(key, String.valueOf(defaultValue));
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            logger.warn("Invalid integer for key {}: {}, using default {}", key, value, defaultValue);
-            return defaultValue;
-        }
+        return snapshot.getInt(key, defaultValue);
     }
 
     /**
@@ -94,7 +57,6 @@ public class ApiConfigManager {
      * @return Boolean value or default
      */
     public boolean getBoolean(String key, boolean defaultValue) {
-        String value = get(key, String.valueOf(defaultValue));
-        return Boolean.parseBoolean(value);
+        return snapshot.getBoolean(key, defaultValue);
     }
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+package config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable view of the configuration, resolved once at startup from, lowest to highest priority:
+ * {@code config.properties}, the profile file {@code config-<profile>.properties} selected by
+ * {@code config.profile}, environment variables ({@code KEY_UPPER_WITH_UNDERSCORES}) and system
+ * properties. Values are parsed into their typed forms up front, so reads are a map lookup.
+ * The snapshot is validated when it is built and refuses to start with a broken configuration.
+ */
+public final class ConfigSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshot.class);
+    private static final String BASE_FILE = "config.properties";
+    private static final Value MISSING = new Value(null, null, null, null);
+
+    private static final Set<String> REQUIRED = Set.of("ui.url", "api.url");
+    private static final Map<String, Set<String>> CHOICES = Map.ofEntries(
+            Map.entry("network.mode", Set.of("off", "record", "replay")),
+            Map.entry("network.miss", Set.of("fail", "passthrough", "record")),
+            Map.entry("block.mode", Set.of("abort", "stub")),
+            Map.entry("execution.mode", Set.of("platform", "virtual")),
+            Map.entry("admission.load.source", Set.of("cgroup", "loadavg", "off")),
+            Map.entry("form.fill.mode", Set.of("batch", "field")),
+            Map.entry("trace.mode", Set.of("on-failure", "off")),
+            Map.entry("screenshot.mode", Set.of("viewport", "fullpage", "clip")),
+            Map.entry("screenshot.format", Set.of("jpeg", "png")),
+            Map.entry("screenshot.scale", Set.of("device", "css")),
+            Map.entry("video.mode", Set.of("on-failure", "off")),
+            Map.entry("api.transport", Set.of("restassured", "httpclient")));
+
+    private static final ConfigSnapshot INSTANCE = load();
+
+    private final Map<String, Value> values;
+    private final String profile;
+    // Keys missing from every file are looked up in the environment once, hits and misses alike
+    private final Map<String, Value> lateLookups = new ConcurrentHashMap<>();
+
+    private ConfigSnapshot(Map<String, Value> values, String profile) {
+        this.values = Map.copyOf(values);
+        this.profile = profile;
+    }
+
+    /**
+     * @return The process-wide snapshot
+     */
+    public static ConfigSnapshot get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return Active profile, or null when only the base file is used
+     */
+    public String profile() {
+        return profile;
+    }
+
+    public String get(String key, String defaultValue) {
+        String text = lookup(key).text();
+        return text != null ? text : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Integer value = lookup(key).intValue();
+        return value != null ? value : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        Double value = lookup(key).doubleValue();
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Boolean value = lookup(key).booleanValue();
+        return value != null ? value : defaultValue;
+    }
+
+    private Value lookup(String key) {
+        Value value = values.get(key);
+        if (value != null) {
+            return value;
+        }
+        return lateLookups.computeIfAbsent(key, k -> {
+            String env = System.getenv(envName(k));
+            return env != null && !env.isEmpty() ? Value.of(env) : MISSING;
+        });
+    }
+
+    private static ConfigSnapshot load() {
+        logger.info("Loading configuration from {}", BASE_FILE);
+        Properties base = read(BASE_FILE);
+        if (base == null) {
+            throw new IllegalStateException(BASE_FILE + " not found in classpath");
+        }
+        String profile = firstNonEmpty(System.getProperty("config.profile"), System.getenv("CONFIG_PROFILE"),
+                base.getProperty("config.profile"));
+        Properties profileProperties = profile != null ? readProfile(profile) : new Properties();
+
+        Map<String, String> resolved = new HashMap<>();
+        base.stringPropertyNames().forEach(key -> resolved.put(key, base.getProperty(key)));
+        profileProperties.stringPropertyNames().forEach(key -> resolved.put(key, profileProperties.getProperty(key)));
+        for (String key : List.copyOf(resolved.keySet())) {
+            String env = System.getenv(envName(key));
+            if (env != null && !env.isEmpty()) {
+                resolved.put(key, env);
+            }
+        }
+        System.getProperties().stringPropertyNames().forEach(key -> {
+            String value = System.getProperty(key);
+            if (value != null && !value.isEmpty()) {
+                resolved.put(key, value);
+            }
+        });
+
+        validate(base, resolved);
+        Map<String, Value> values = new HashMap<>();
+        resolved.forEach((key, text) -> values.put(key, Value.of(text)));
+        logger.info("Configuration resolved: {} keys, profile {}", base.size() + profileProperties.size(),
+                profile != null ? profile : "none");
+        return new ConfigSnapshot(values, profile);
+    }
+
+    // Values must keep the type of the shipped default in config.properties
+    private static void validate(Properties base, Map<String, String> resolved) {
+        List<String> problems = new ArrayList<>();
+        REQUIRED.stream().sorted().forEach(key -> {
+            String value = resolved.get(key);
+            if (value == null || value.isBlank()) {
+                problems.add(key + " is required");
+            }
+        });
+        for (String key : base.stringPropertyNames()) {
+            String shipped = base.getProperty(key);
+            String value = resolved.get(key);
+            if (shipped.isEmpty() || value == null || value.equals(shipped)) {
+                continue;
+            }
+            Value expected = Value.of(shipped);
+            Value actual = Value.of(value);
+            if (expected.intValue() != null && actual.intValue() == null) {
+                problems.add(key + " must be an integer but was '" + value + "'");
+            } else if (expected.intValue() == null && expected.doubleValue() != null && actual.doubleValue() == null) {
+                problems.add(key + " must be a number but was '" + value + "'");
+            } else if (isBoolean(shipped) && !isBoolean(value)) {
+                problems.add(key + " must be true or false but was '" + value + "'");
+            }
+        }
+        CHOICES.forEach((key, choices) -> {
+            String value = resolved.get(key);
+            if (value != null && !choices.contains(value.toLowerCase(Locale.ROOT))) {
+                problems.add(key + " must be one of " + choices + " but was '" + value + "'");
+            }
+        });
+        String shard = resolved.get("shard");
+        if (shard != null && !shard.isBlank() && !shard.trim().matches("\\d+/\\d+")) {
+            problems.add("shard must look like i/n but was '" + shard + "'");
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Invalid configuration: " + String.join("; ", problems));
+        }
+    }
+
+    private static Properties readProfile(String profile) {
+        String file = "config-" + profile + ".properties";
+        Properties loaded = read(file);
+        if (loaded == null) {
+            throw new IllegalStateException("Configuration profile '" + profile + "' has no " + file + " in classpath");
+        }
+        return loaded;
+    }
+
+    private static Properties read(String file) {
+        try (InputStream input = ConfigSnapshot.class.getClassLoader().getResourceAsStream(file)) {
+            if (input == null) {
+                return null;
+            }
+            Properties properties = new Properties();
+            properties.load(input);
+            return properties;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load " + file, e);
+        }
+    }
+
+    private static String envName(String key) {
+        return key.toUpperCase(Locale.ROOT).replace(".", "_");
+    }
+
+    private static boolean isBoolean(String value) {
+        return "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value);
+    }
+
+    private static String firstNonEmpty(String... candidates) {
+        for (String candidate : candidates) {
+            if (candidate != null && !candidate.isBlank()) {
+                return candidate.trim();
+            }
+        }
+        return null;
+    }
+
+    // A value in all the forms callers ask for, parsed once
+    private record Value(String text, Integer intValue, Double doubleValue, Boolean booleanValue) {
+        static Value of(String text) {
+            String trimmed = text.trim();
+            Integer intValue = null;
+            Double doubleValue = null;
+            try {
+                intValue = Integer.parseInt(trimmed);
+            } catch (NumberFormatException e) {
+                // not an integer
+            }
+            try {
+                doubleValue = trimmed.isEmpty() ? null : Double.parseDouble(trimmed);
+            } catch (NumberFormatException e) {
+                // not a number
+            }
+            return new Value(text, intValue, doubleValue, Boolean.parseBoolean(trimmed));
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package factory;
+
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides how many tests may run at once. Every test takes a weight in capacity units (per browser
+ * engine for UI tests, a light {@code api} weight for API tests); tests over the limit wait in a FIFO queue.
+ * The limit starts at {@code cores * admission.units.per.core} and is lowered from the live CPU load and
+ * available memory. {@code admission.load.source=cgroup} measures the CPU used by this JVM's cgroup, the same
+ * scope {@code availableProcessors()} is limited to; {@code loadavg} uses the host-wide {@code /proc/loadavg}
+ * and {@code off} disables load sampling. Memory is the lower of {@code MemAvailable} and the cgroup's headroom.
+ * <p>Browsers stay resident between tests, so besides the permits of running tests the limit also covers
+ * every launched browser at {@code admission.resident.weight.<engine>} units, whether a worker or the warm pool
+ * holds it. A test that will launch a browser reserves its resident weight when it is admitted. The TestNG
+ * thread-count is only a ceiling; the number of tests and browsers that really run is decided here.
+ */
+public class AdmissionController {
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
+    private static final Path LOADAVG = Paths.get("/proc/loadavg");
+    private static final Path MEMINFO = Paths.get("/proc/meminfo");
+    private static final CgroupStats cgroup = CgroupStats.system();
+
+    private static final ReentrantLock lock = new ReentrantLock();
+    private static final Condition changed = lock.newCondition();
+    private static final Deque<Long> queue = new ArrayDeque<>();
+    private static final Map<Object, Integer> residentBrowsers = new IdentityHashMap<>();
+    private static long nextTicket;
+    private static int unitsInUse;
+    private static int residentUnits;
+    private static int reservedUnits;
+    private static int running;
+    private static int limit;
+    private static long sampledAt;
+
+    private static int admitted;
+    private static int queued;
+    private static long waitNanos;
+    private static long maxWaitNanos;
+    private static int peakUnits;
+    private static int peakResidentUnits;
+    private static int peakRunning;
+    private static int minLimit = Integer.MAX_VALUE;
+
+    private AdmissionController() {
+    }
+
+    /**
+     * Waits until the test fits under the current limit and takes its weight.
+     * A test is always admitted when nothing else runs, so a low limit never deadlocks the suite.
+     * @param kind Playwright engine name for UI tests, or {@code api}
+     * @return Permit to release when the test has finished with its resources
+     */
+    public static Permit acquire(String kind) {
+        return acquire(kind, false, null);
+    }
+
+    /**
+     * Waits until the test, and the browser it may have to launch, fit under the current limit.
+     * @param kind Playwright engine name for UI tests, or {@code api}
+     * @param launchesBrowser Whether the test has no resident browser yet; its resident weight is reserved
+     *                        until {@link Permit#browserReady()} or {@link Permit#release()}
+     * @param onQueued Called once, outside the lock, when the test has to wait, e.g. to close idle browsers; may be null
+     * @return Permit to release when the test has finished with its resources
+     */
+    public static Permit acquire(String kind, boolean launchesBrowser, Runnable onQueued) {
+        if (!ConfigManager.getBoolean("admission.enabled", true)) {
+            return new Permit(kind, 0, 0);
+        }
+        int weight = weight(kind);
+        int reserve = launchesBrowser ? residentWeight(kind) : 0;
+        long start = System.nanoTime();
+        boolean waited = false;
+        lock.lock();
+        long ticket = nextTicket++;
+        queue.addLast(ticket);
+        try {
+            while (true) {
+                refreshLimit();
+                if (queue.peekFirst() == ticket
+                        && (running == 0 || unitsInUse + residentUnits + reservedUnits + weight + reserve <= limit)) {
+                    break;
+                }
+                if (!waited) {
+                    waited = true;
+                    queued++;
+                    logger.debug("Test ({}, weight {} + {} reserved) queued for thread {}: {} + {} resident / {} units in use",
+                            kind, weight, reserve, Thread.currentThread().getName(), unitsInUse, residentUnits, limit);
+                    if (onQueued != null) {
+                        lock.unlock();
+                        try {
+                            onQueued.run();
+                        } catch (RuntimeException e) {
+                            logger.debug("Queued callback failed for thread {}: {}", Thread.currentThread().getName(), e.getMessage());
+                        } finally {
+                            lock.lock();
+                        }
+                        continue;
+                    }
+                }
+                // Timed wait: the limit also changes with system load, not only on release
+                changed.await(sampleIntervalMs(), TimeUnit.MILLISECONDS);
+            }
+            queue.pollFirst();
+            unitsInUse += weight;
+            reservedUnits += reserve;
+            running++;
+            admitted++;
+            peakUnits = Math.max(peakUnits, unitsInUse);
+            peakRunning = Math.max(peakRunning, running);
+            long elapsed = System.nanoTime() - start;
+            waitNanos += elapsed;
+            maxWaitNanos = Math.max(maxWaitNanos, elapsed);
+            // The next queued test may fit as well
+            changed.signalAll();
+        } catch (InterruptedException e) {
+            queue.remove(ticket);
+            changed.signalAll();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for test admission", e);
+        } finally {
+            lock.unlock();
+        }
+        if (waited) {
+            logger.info("Test ({}) admitted after {} ms for thread {}", kind,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), Thread.currentThread().getName());
+        }
+        return new Permit(kind, weight, reserve);
+    }
+
+    /**
+     * Estimates how many tests of one kind fit under the current limit, each with its own resident browser.
+     * @param kind Playwright engine name or {@code api}
+     * @return Number of concurrent tests, at least 1
+     */
+    public static int capacity(String kind) {
+        lock.lock();
+        try {
+            refreshLimit();
+            int perTest = weight(kind) + ("api".equalsIgnoreCase(kind) ? 0 : residentWeight(kind));
+            return Math.max(1, limit / perTest);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts a launched browser as resident until {@link #browserClosed(Object)}.
+     * Browsers shared through the browser server are not launched by this JVM and are not counted.
+     * @param browser Launched browser
+     * @param engine Playwright engine name
+     */
+    public static void browserStarted(Object browser, String engine) {
+        if (browser == null || !ConfigManager.getBoolean("admission.enabled", true)) {
+            return;
+        }
+        int units = residentWeight(engine);
+        lock.lock();
+        try {
+            if (residentBrowsers.putIfAbsent(browser, units) == null) {
+                residentUnits += units;
+                peakResidentUnits = Math.max(peakResidentUnits, residentUnits);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops counting a browser that was closed, killed or disconnected. Only the first call has an effect.
+     * @param browser Browser passed to {@link #browserStarted(Object, String)}
+     */
+    public static void browserClosed(Object browser) {
+        if (browser == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            Integer units = residentBrowsers.remove(browser);
+            if (units != null) {
+                residentUnits -= units;
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Summarises admissions, queueing and the range of the limit.
+     * @return Human readable statistics line
+     */
+    public static String stats() {
+        lock.lock();
+        try {
+            long avgMs = admitted == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(waitNanos / admitted);
+            return String.format(
+                    "Admission control: %d admitted (%d queued), wait avg %d ms / max %d ms, peak %d tests / %d units, peak %d resident browser units, limit min %d / last %d units",
+                    admitted, queued, avgMs, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos), peakRunning, peakUnits,
+                    peakResidentUnits, minLimit == Integer.MAX_VALUE ? limit : minLimit, limit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Units held by resident browsers and by reservations for browsers about to launch
+     */
+    static int residentUnits() {
+        lock.lock();
+        try {
+            return residentUnits + reservedUnits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void release(Permit permit) {
+        if (permit.weight == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            reservedUnits -= permit.reserved;
+            permit.reserved = 0;
+            unitsInUse -= permit.weight;
+            running--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The reserved units are now counted by browserStarted(), or were not needed
+    private static void settle(Permit permit) {
+        lock.lock();
+        try {
+            reservedUnits -= permit.reserved;
+            permit.reserved = 0;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int weight(String kind) {
+        String key = kind == null ? "api" : kind.toLowerCase();
+        int fallback = "api".equals(key) ? 1 : 4;
+        return Math.max(1, ConfigManager.getInt("admission.weight." + key, fallback));
+    }
+
+    private static int residentWeight(String engine) {
+        String key = engine == null ? "chromium" : engine.toLowerCase();
+        return Math.max(0, ConfigManager.getInt("admission.resident.weight." + key, 1));
+    }
+
+    // Headroom is added to the units already in use, because their load is part of the measurement
+    private static void refreshLimit() {
+        long now = System.currentTimeMillis();
+        if (limit > 0 && now - sampledAt < sampleIntervalMs()) {
+            return;
+        }
+        sampledAt = now;
+        Double load = load();
+        Long availableMb = availableMemoryMb();
+        int inUse = unitsInUse + residentUnits;
+        int newLimit = computeLimit(Runtime.getRuntime().availableProcessors(), inUse, load, availableMb);
+        if (newLimit != limit) {
+            logger.debug("Admission limit {} -> {} units (load {}, available {} MB, {} units in use incl. {} resident)",
+                    limit, newLimit, load, availableMb, inUse, residentUnits);
+        }
+        limit = newLimit;
+        minLimit = Math.min(minLimit, newLimit);
+    }
+
+    /**
+     * Applies the configured units per core, target load and memory cost to one sample.
+     * @param cores Processors available to the JVM
+     * @param inUse Units held by running tests and resident browsers, whose load is already part of the sample
+     * @param load Busy cores, or null if not sampled
+     * @param availableMb Free memory in MB, or null if unknown
+     * @return Limit in units, at least 0
+     */
+    static int computeLimit(int cores, int inUse, Double load, Long availableMb) {
+        int unitsPerCore = ConfigManager.getInt("admission.units.per.core", 4);
+        int maxUnits = ConfigManager.getInt("admission.max.units", 0);
+        int newLimit = maxUnits > 0 ? maxUnits : cores * unitsPerCore;
+        if (load != null) {
+            double targetLoad = cores * ConfigManager.getDouble("admission.target.load.per.core", 1.0);
+            newLimit = Math.min(newLimit, inUse + (int) Math.floor((targetLoad - load) * unitsPerCore));
+        }
+        if (availableMb != null) {
+            long reserveMb = ConfigManager.getInt("admission.memory.reserve.mb", 512);
+            long mbPerUnit = Math.max(1, ConfigManager.getInt("admission.mb.per.unit", 150));
+            newLimit = (int) Math.min(newLimit, inUse + (availableMb - reserveMb) / mbPerUnit);
+        }
+        return Math.max(0, newLimit);
+    }
+
+    private static Double load() {
+        return switch (ConfigManager.get("admission.load.source", "cgroup").toLowerCase()) {
+            case "cgroup" -> cgroup.busyCores(System.nanoTime());
+            case "loadavg" -> loadAverage();
+            default -> null;
+        };
+    }
+
+    private static long sampleIntervalMs() {
+        return Math.max(100, ConfigManager.getInt("admission.sample.interval", 1000));
+    }
+
+    private static Double loadAverage() {
+        try {
+            String line = Files.readString(LOADAVG).trim();
+            return Double.parseDouble(line.split("\\s+")[0]);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Long availableMemoryMb() {
+        Long host = hostAvailableMemoryMb();
+        Long limited = cgroup.availableMemoryMb();
+        if (host == null || limited == null) {
+            return host != null ? host : limited;
+        }
+        return Math.min(host, limited);
+    }
+
+    private static Long hostAvailableMemoryMb() {
+        try {
+            List<String> lines = Files.readAllLines(MEMINFO);
+            for (String line : lines) {
+                if (line.startsWith("MemAvailable:")) {
+                    return Long.parseLong(line.replaceAll("\\D+", "")) / 1024;
+                }
+            }
+            return null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Capacity held by one running test. Only the first {@link #release()} has an effect.
+     */
+    public static final class Permit {
+        private final String kind;
+        private final int weight;
+        // Guarded by the controller's lock
+        private int reserved;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(String kind, int weight, int reserved) {
+            this.kind = kind;
+            this.weight = weight;
+            this.reserved = reserved;
+        }
+
+        /**
+         * Drops the reservation for a browser launch once the test has its browser.
+         */
+        public void browserReady() {
+            if (weight > 0 && !released.get()) {
+                AdmissionController.settle(this);
+            }
+        }
+
+        public void release() {
+            if (!released.getAndSet(true)) {
+                AdmissionController.release(this);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Permit[" + kind + ", " + weight + " units]";
+        }
+    }
+}
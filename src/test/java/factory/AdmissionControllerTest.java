@@ -0,0 +1,110 @@
+package factory;
+
+import io.qameta.allure.Feature;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class AdmissionControllerTest {
+
+    @Test(description = "Without samples the limit is cores times units per core", groups = {"unit"})
+    @Feature("Admission Control")
+    public void testStaticLimit() {
+        Assert.assertEquals(AdmissionController.computeLimit(4, 0, null, null), 16);
+    }
+
+    @Test(description = "CPU load lowers the limit to the headroom above the units in use", groups = {"unit"})
+    @Feature("Admission Control")
+    public void testLoadLimit() {
+        Assert.assertEquals(AdmissionController.computeLimit(4, 8, 2.0, null), 16, "2 idle cores give 8 more units");
+        Assert.assertEquals(AdmissionController.computeLimit(4, 8, 4.0, null), 8, "At the target load nothing more is admitted");
+        Assert.assertEquals(AdmissionController.computeLimit(4, 8, 6.0, null), 0, "The limit never goes negative");
+    }
+
+    @Test(description = "Free memory above the reserve caps the limit", groups = {"unit"})
+    @Feature("Admission Control")
+    public void testMemoryLimit() {
+        Assert.assertEquals(AdmissionController.computeLimit(4, 4, null, 512L + 300), 6, "300 MB over the reserve fit 2 units");
+        Assert.assertEquals(AdmissionController.computeLimit(4, 4, 0.0, 100_000L), 16, "Plenty of memory keeps the core limit");
+    }
+
+    @Test(description = "Resident browsers are counted once from launch until they are closed", groups = {"unit"})
+    @Feature("Admission Control")
+    public void testResidentBrowsers() {
+        int before = AdmissionController.residentUnits();
+        Object first = new Object();
+        Object second = new Object();
+        AdmissionController.browserStarted(first, "chromium");
+        AdmissionController.browserStarted(first, "chromium");
+        AdmissionController.browserStarted(second, "webkit");
+        Assert.assertEquals(AdmissionController.residentUnits(), before + 2);
+        AdmissionController.browserClosed(first);
+        AdmissionController.browserClosed(first);
+        Assert.assertEquals(AdmissionController.residentUnits(), before + 1, "A second close has no effect");
+        AdmissionController.browserClosed(second);
+        Assert.assertEquals(AdmissionController.residentUnits(), before);
+    }
+
+    @Test(description = "A test that launches a browser holds its reservation until the browser is ready", groups = {"unit"})
+    @Feature("Admission Control")
+    public void testLaunchReservation() {
+        int before = AdmissionController.residentUnits();
+        AdmissionController.Permit permit = AdmissionController.acquire("chromium", true, null);
+        try {
+            Assert.assertEquals(AdmissionController.residentUnits(), before + 1);
+            permit.browserReady();
+            Assert.assertEquals(AdmissionController.residentUnits(), before);
+        } finally {
+            permit.release();
+        }
+        AdmissionController.Permit failed = AdmissionController.acquire("chromium", true, null);
+        failed.release();
+        Assert.assertEquals(AdmissionController.residentUnits(), before, "Releasing drops an unsettled reservation");
+    }
+
+    @Test(description = "Busy cores are measured from cgroup v2 cpu.stat deltas", groups = {"unit"})
+    @Feature("Admission Control")
+    public void testCgroupV2BusyCores() throws IOException {
+        Path root = Files.createTempDirectory("cgroup-v2");
+        CgroupStats stats = new CgroupStats(root);
+        Files.writeString(root.resolve("cpu.stat"), "usage_usec 1000000\nuser_usec 800000\n");
+        Assert.assertNull(stats.busyCores(0), "The first sample has no delta");
+        Files.writeString(root.resolve("cpu.stat"), "usage_usec 3000000\nuser_usec 2400000\n");
+        Assert.assertEquals(stats.busyCores(1_000_000_000L), 2.0, 1e-9);
+    }
+
+    @Test(description = "Busy cores fall back to cgroup v1 cpuacct", groups = {"unit"})
+    @Feature("Admission Control")
+    public void testCgroupV1BusyCores() throws IOException {
+        Path root = Files.createTempDirectory("cgroup-v1");
+        Files.createDirectories(root.resolve("cpuacct"));
+        CgroupStats stats = new CgroupStats(root);
+        Files.writeString(root.resolve("cpuacct/cpuacct.usage"), "0\n");
+        stats.busyCores(0);
+        Files.writeString(root.resolve("cpuacct/cpuacct.usage"), "500000000\n");
+        Assert.assertEquals(stats.busyCores(1_000_000_000L), 0.5, 1e-9);
+    }
+
+    @Test(description = "Memory headroom is read from the cgroup limit, unlimited cgroups report none", groups = {"unit"})
+    @Feature("Admission Control")
+    public void testCgroupMemory() throws IOException {
+        Path root = Files.createTempDirectory("cgroup-memory");
+        CgroupStats stats = new CgroupStats(root);
+        Assert.assertNull(stats.availableMemoryMb(), "No cgroup files");
+        Files.writeString(root.resolve("memory.max"), "max\n");
+        Files.writeString(root.resolve("memory.current"), "1048576\n");
+        Assert.assertNull(stats.availableMemoryMb(), "No v2 limit");
+        Files.writeString(root.resolve("memory.max"), String.valueOf(2048L * 1024 * 1024));
+        Files.writeString(root.resolve("memory.current"), String.valueOf(512L * 1024 * 1024));
+        Assert.assertEquals(stats.availableMemoryMb(), Long.valueOf(1536));
+
+        Path v1 = Files.createTempDirectory("cgroup-memory-v1");
+        Files.createDirectories(v1.resolve("memory"));
+        Files.writeString(v1.resolve("memory/memory.limit_in_bytes"), "9223372036854771712\n");
+        Files.writeString(v1.resolve("memory/memory.usage_in_bytes"), "1048576\n");
+        Assert.assertNull(new CgroupStats(v1).availableMemoryMb(), "No v1 limit");
+    }
+}
@@ -0,0 +1,310 @@
+package factory;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one Playwright driver and one Browser per engine for every worker thread.
+ * Tests only create a fresh BrowserContext on top of them; everything launched here
+ * is closed once at suite end by {@link #shutdown()}. Launched browsers are counted as resident by
+ * {@link AdmissionController} until they are closed, reaped or disconnect.
+ */
+public class BrowserManager {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserManager.class);
+    private static final ThreadLocal<WorkerBrowsers> workerBrowsers = new ThreadLocal<>();
+    private static final Queue<WorkerBrowsers> allWorkers = new ConcurrentLinkedQueue<>();
+    private static final Map<Browser, Playwright> browserOwners = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger driverLaunches = new AtomicInteger();
+    private static final AtomicInteger driverAdoptions = new AtomicInteger();
+    private static final AtomicInteger driverReuses = new AtomicInteger();
+    private static final AtomicInteger browserLaunches = new AtomicInteger();
+    private static final AtomicInteger browserReuses = new AtomicInteger();
+    private static final AtomicLong driverLaunchNanos = new AtomicLong();
+    private static final AtomicLong browserLaunchNanos = new AtomicLong();
+
+    private BrowserManager() {
+    }
+
+    /**
+     * Returns the Browser owned by the current worker thread for the given engine.
+     * A worker without a driver adopts a pre-warmed session from {@link BrowserWarmPool} when one is
+     * available; its driver becomes the worker's only driver and launches the worker's other engines.
+     * Otherwise the worker launches the driver and the browser itself.
+     * @param browserName Playwright engine name (chromium, firefox, webkit)
+     * @param headless Whether the browser runs headless
+     * @return Browser that stays alive until suite end
+     */
+    public static Browser getBrowser(String browserName, boolean headless) {
+        WorkerBrowsers worker = workerBrowsers.get();
+        if (worker == null) {
+            worker = new WorkerBrowsers(Thread.currentThread().getName());
+            workerBrowsers.set(worker);
+            allWorkers.add(worker);
+        }
+        return worker.browser(browserName.toLowerCase(), headless);
+    }
+
+    /**
+     * @param browserName Playwright engine name
+     * @param headless Whether the browser runs headless
+     * @return Whether the current worker already has a live browser for the engine, so its next test launches none
+     */
+    public static boolean hasBrowser(String browserName, boolean headless) {
+        WorkerBrowsers worker = workerBrowsers.get();
+        return worker != null && worker.has(key(browserName.toLowerCase(), headless));
+    }
+
+    /**
+     * Closes the current worker's browsers of other engines, which sit idle while it waits for admission.
+     * The driver stays alive for the next launch.
+     * @param browserName Playwright engine name to keep
+     * @param headless Whether the kept browser runs headless
+     */
+    public static void closeOtherBrowsers(String browserName, boolean headless) {
+        WorkerBrowsers worker = workerBrowsers.get();
+        if (worker != null) {
+            worker.closeOthers(key(browserName.toLowerCase(), headless));
+        }
+    }
+
+    /**
+     * Hands over the blank context that came with an adopted warm session, once.
+     * @param browserName Playwright engine name
+     * @param headless Whether the browser runs headless
+     * @return Pre-warmed context or null if the worker has none pending
+     */
+    public static BrowserContext takeWarmContext(String browserName, boolean headless) {
+        WorkerBrowsers worker = workerBrowsers.get();
+        return worker == null ? null : worker.warmContexts.remove(key(browserName.toLowerCase(), headless));
+    }
+
+    /**
+     * Tells the reaper the browser's driver is idle again once a test has finished with it.
+     * @param browser Browser previously returned by {@link #getBrowser(String, boolean)}
+     */
+    public static void release(Browser browser) {
+        Playwright owner = browser == null ? null : browserOwners.get(browser);
+        if (owner != null) {
+            BrowserReaper.markIdle(owner);
+        }
+    }
+
+    private static void markBusy(Browser browser) {
+        Playwright owner = browserOwners.get(browser);
+        if (owner != null) {
+            BrowserReaper.markBusy(owner);
+        }
+    }
+
+    /**
+     * Closes every Browser and Playwright driver launched by any worker thread.
+     */
+    public static void shutdown() {
+        WorkerBrowsers worker;
+        while ((worker = allWorkers.poll()) != null) {
+            worker.close();
+        }
+        logger.info(stats());
+        logger.info(ContextPool.stats());
+    }
+
+    /**
+     * Summarises launch counts and the launch time saved by reusing drivers and browsers.
+     * Drivers adopted from the warm pool were launched in the background and count as drivers, not reuses.
+     * @return Human readable statistics line
+     */
+    public static String stats() {
+        int drivers = driverLaunches.get();
+        int browsers = browserLaunches.get();
+        long avgDriverMs = drivers == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(driverLaunchNanos.get() / drivers);
+        long avgBrowserMs = browsers == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(browserLaunchNanos.get() / browsers);
+        long savedMs = driverReuses.get() * avgDriverMs + browserReuses.get() * avgBrowserMs;
+        return String.format(
+                "Browser reuse: %d drivers (%d launched avg %d ms, %d adopted pre-warmed, %d reuses), %d browser launches (avg %d ms, %d reuses), ~%d ms launch time saved",
+                drivers + driverAdoptions.get(), drivers, avgDriverMs, driverAdoptions.get(), driverReuses.get(),
+                browsers, avgBrowserMs, browserReuses.get(), savedMs);
+    }
+
+    /**
+     * Launches a browser, or attaches to the machine-wide one when {@code browser.server.enabled=true}.
+     * @param browserType Browser type of the calling thread's Playwright driver
+     * @param browserName Playwright engine name
+     * @param headless Whether the browser runs headless
+     * @return Launched or connected browser
+     */
+    static Browser launch(BrowserType browserType, String browserName, boolean headless) {
+        if (BrowserServer.isEnabled()) {
+            return BrowserServer.connect(browserType, browserName, headless);
+        }
+        Browser browser = browserType.launch(new BrowserType.LaunchOptions().setHeadless(headless));
+        AdmissionController.browserStarted(browser, browserName);
+        return browser;
+    }
+
+    /**
+     * Stops counting the browsers of a driver the reaper killed, before their worker notices.
+     * @param playwright Killed driver
+     */
+    static void reaped(Playwright playwright) {
+        browserOwners.forEach((browser, owner) -> {
+            if (owner == playwright) {
+                AdmissionController.browserClosed(browser);
+            }
+        });
+    }
+
+    private static String key(String browserName, boolean headless) {
+        return browserName + (headless ? ":headless" : ":headed");
+    }
+
+    private static final class WorkerBrowsers {
+        private final String threadName;
+        private final Map<String, Browser> browsers = new HashMap<>();
+        private final Map<String, BrowserContext> warmContexts = new HashMap<>();
+        // The worker's only driver, launched here or adopted with a warm session
+        private Playwright playwright;
+
+        private WorkerBrowsers(String threadName) {
+            this.threadName = threadName;
+        }
+
+        private boolean has(String key) {
+            dropReaped();
+            Browser browser = browsers.get(key);
+            return browser != null && browser.isConnected();
+        }
+
+        private void closeOthers(String keep) {
+            dropReaped();
+            browsers.entrySet().removeIf(entry -> {
+                if (entry.getKey().equals(keep)) {
+                    return false;
+                }
+                closeBrowser(entry.getKey(), entry.getValue());
+                warmContexts.remove(entry.getKey());
+                logger.info("Closed idle {} browser of thread {} to make room for admission", entry.getKey(), threadName);
+                return true;
+            });
+        }
+
+        private Browser browser(String browserName, boolean headless) {
+            dropReaped();
+            String key = key(browserName, headless);
+            Browser browser = browsers.get(key);
+            if (browser != null && browser.isConnected()) {
+                browserReuses.incrementAndGet();
+                markBusy(browser);
+                logger.debug("Reusing {} browser for thread {}", key, threadName);
+                return browser;
+            }
+            if (browser != null) {
+                logger.warn("Browser {} disconnected for thread {}, relaunching", key, threadName);
+                browsers.remove(key);
+                browserOwners.remove(browser);
+                AdmissionController.browserClosed(browser);
+            }
+
+            if (playwright == null) {
+                // A warm session brings its own driver, so only a worker without one adopts it
+                BrowserWarmPool.WarmSession session = BrowserWarmPool.take(browserName, headless);
+                if (session != null) {
+                    playwright = session.playwright();
+                    driverAdoptions.incrementAndGet();
+                    BrowserReaper.register(playwright, threadName);
+                    browsers.put(key, session.browser());
+                    browserOwners.put(session.browser(), playwright);
+                    warmContexts.put(key, session.context());
+                    markBusy(session.browser());
+                    logger.info("Adopted pre-warmed {} browser and its driver for thread {}", key, threadName);
+                    return session.browser();
+                }
+                long start = System.nanoTime();
+                playwright = Playwright.create();
+                driverLaunchNanos.addAndGet(System.nanoTime() - start);
+                driverLaunches.incrementAndGet();
+                BrowserReaper.register(playwright, threadName);
+                logger.info("Playwright driver created for thread {}", threadName);
+            } else {
+                driverReuses.incrementAndGet();
+            }
+
+            BrowserType browserType = switch (browserName) {
+                case "firefox" -> playwright.firefox();
+                case "webkit" -> playwright.webkit();
+                default -> playwright.chromium();
+            };
+            long start = System.nanoTime();
+            browser = launch(browserType, browserName, headless);
+            browserLaunchNanos.addAndGet(System.nanoTime() - start);
+            browserLaunches.incrementAndGet();
+            browsers.put(key, browser);
+            browserOwners.put(browser, playwright);
+            markBusy(browser);
+            logger.info("Launched {} browser for thread {}", key, threadName);
+            return browser;
+        }
+
+        // Forgets drivers the reaper killed while idle, together with their browsers
+        private void dropReaped() {
+            browsers.entrySet().removeIf(entry -> {
+                Playwright owner = browserOwners.get(entry.getValue());
+                if (!BrowserReaper.isReaped(owner)) {
+                    return false;
+                }
+                logger.warn("Browser {} of thread {} was reaped while idle", entry.getKey(), threadName);
+                browserOwners.remove(entry.getValue());
+                AdmissionController.browserClosed(entry.getValue());
+                warmContexts.remove(entry.getKey());
+                return true;
+            });
+            if (BrowserReaper.isReaped(playwright)) {
+                playwright = null;
+            }
+        }
+
+        private void close() {
+            browsers.forEach(this::closeBrowser);
+            browsers.clear();
+            warmContexts.clear();
+            if (playwright != null) {
+                closeDriver(playwright);
+                playwright = null;
+            }
+        }
+
+        private void closeBrowser(String key, Browser browser) {
+            try {
+                browser.close();
+                logger.info("Browser {} closed for thread {}", key, threadName);
+            } catch (Exception e) {
+                logger.error("Failed to close browser {} for thread {}: {}", key, threadName, e.getMessage());
+            }
+            browserOwners.remove(browser);
+            AdmissionController.browserClosed(browser);
+        }
+
+        private void closeDriver(Playwright driver) {
+            try {
+                driver.close();
+                BrowserReaper.unregister(driver);
+                logger.info("Playwright closed for thread {}", threadName);
+            } catch (Exception e) {
+                logger.error("Failed to close Playwright for thread {}: {}", threadName, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package factory;
+
+import com.microsoft.playwright.Playwright;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of every Playwright driver process (and, through it, its browser processes) started by
+ * the framework. Drivers left alive after graceful shutdown, or idle longer than
+ * {@code reaper.idle.timeout} milliseconds, are killed together with their browsers.
+ */
+public class BrowserReaper {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserReaper.class);
+    private static final Map<Playwright, Tracked> tracked = new ConcurrentHashMap<>();
+    private static final Map<Playwright, Boolean> reaped = new ConcurrentHashMap<>();
+    private static volatile ScheduledExecutorService idleWatch;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (!tracked.isEmpty()) {
+                reap("JVM shutdown");
+            }
+        }, "browser-reaper-shutdown"));
+    }
+
+    private BrowserReaper() {
+    }
+
+    /**
+     * Starts tracking a driver's process tree.
+     * @param playwright Newly created Playwright instance
+     * @param owner Label used in reports (e.g. the worker thread name)
+     */
+    public static void register(Playwright playwright, String owner) {
+        Optional<ProcessHandle> driver = driverProcess(playwright);
+        if (driver.isEmpty()) {
+            logger.debug("No driver process found for Playwright owned by {}", owner);
+            return;
+        }
+        tracked.put(playwright, new Tracked(owner, driver.get()));
+        logger.debug("Tracking Playwright driver pid {} for {}", driver.get().pid(), owner);
+    }
+
+    /** Stops tracking a driver that was closed gracefully. */
+    public static void unregister(Playwright playwright) {
+        tracked.remove(playwright);
+    }
+
+    /** Marks a driver as serving a test, so the idle watch leaves it alone. */
+    public static void markBusy(Playwright playwright) {
+        Tracked entry = tracked.get(playwright);
+        if (entry != null) {
+            entry.busy = true;
+            entry.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    /** Marks a driver as idle from now on. */
+    public static void markIdle(Playwright playwright) {
+        Tracked entry = tracked.get(playwright);
+        if (entry != null) {
+            entry.busy = false;
+            entry.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * @return true if the driver was killed by the reaper and must not be used again
+     */
+    public static boolean isReaped(Playwright playwright) {
+        return playwright != null && reaped.containsKey(playwright);
+    }
+
+    /**
+     * Starts a daemon that kills drivers idle for longer than the timeout.
+     * @param idleTimeoutMs Idle timeout in milliseconds, 0 or less disables the watch
+     */
+    public static synchronized void startIdleWatch(long idleTimeoutMs) {
+        if (idleTimeoutMs <= 0 || idleWatch != null) {
+            return;
+        }
+        idleWatch = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "browser-reaper-idle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMs / 2);
+        idleWatch.scheduleAtFixedRate(() -> reapIdle(idleTimeoutMs), period, period, TimeUnit.MILLISECONDS);
+        logger.info("Browser reaper idle watch started with timeout {} ms", idleTimeoutMs);
+    }
+
+    /**
+     * Stops the idle watch and kills every tracked process tree that is still alive.
+     * Call after graceful shutdown, so only leaked processes remain.
+     * @param reason Label for the report
+     * @return Descriptions of the processes that were killed
+     */
+    public static synchronized List<String> reap(String reason) {
+        if (idleWatch != null) {
+            idleWatch.shutdownNow();
+            idleWatch = null;
+        }
+        List<String> reclaimed = new ArrayList<>();
+        for (Map.Entry<Playwright, Tracked> entry : tracked.entrySet()) {
+            reclaimed.addAll(kill(entry.getValue()));
+            reaped.put(entry.getKey(), Boolean.TRUE);
+        }
+        tracked.clear();
+        if (reclaimed.isEmpty()) {
+            logger.info("Browser reaper ({}): no leaked processes", reason);
+        } else {
+            logger.warn("Browser reaper ({}): killed {} leaked processes: {}", reason, reclaimed.size(), reclaimed);
+        }
+        return reclaimed;
+    }
+
+    private static void reapIdle(long idleTimeoutMs) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Playwright, Tracked> entry : tracked.entrySet()) {
+            Tracked value = entry.getValue();
+            if (value.busy || now - value.lastUsed < idleTimeoutMs) {
+                continue;
+            }
+            // Flag first so the owning worker relaunches instead of using a dying driver
+            reaped.put(entry.getKey(), Boolean.TRUE);
+            tracked.remove(entry.getKey());
+            List<String> reclaimed = kill(value);
+            BrowserManager.reaped(entry.getKey());
+            logger.warn("Browser reaper: {} idle for {} ms, killed {}", value.owner, now - value.lastUsed, reclaimed);
+        }
+    }
+
+    // Kills browsers before the driver so they are not re-parented and missed
+    private static List<String> kill(Tracked entry) {
+        List<ProcessHandle> processes = entry.driver.descendants().collect(Collectors.toList());
+        processes.add(entry.driver);
+        List<String> killed = new ArrayList<>();
+        for (ProcessHandle process : processes) {
+            if (process.isAlive() && process.destroyForcibly()) {
+                killed.add(process.pid() + ":" + process.info().command().orElse("?") + " (" + entry.owner + ")");
+            }
+        }
+        return killed;
+    }
+
+    private static Optional<ProcessHandle> driverProcess(Playwright playwright) {
+        try {
+            Field field = playwright.getClass().getDeclaredField("driverProcess");
+            field.setAccessible(true);
+            Object process = field.get(playwright);
+            return process instanceof Process p ? Optional.of(p.toHandle()) : Optional.empty();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Cannot access Playwright driver process: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static final class Tracked {
+        private final String owner;
+        private final ProcessHandle driver;
+        private volatile boolean busy;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private Tracked(String owner, ProcessHandle driver) {
+            this.owner = owner;
+            this.driver = driver;
+        }
+    }
+}
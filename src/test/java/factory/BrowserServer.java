@@ -0,0 +1,301 @@
+package factory;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares one Playwright browser server per engine between every JVM on the machine.
+ * The first JVM to need an engine starts {@code playwright launch-server} under a file lock and
+ * publishes its WebSocket endpoint in {@code browser.server.dir}; every JVM then attaches with
+ * {@link BrowserType#connect(String)}. Contexts per shared browser are capped across processes by
+ * {@code browser.server.max.contexts} slot lock files.
+ * <p>Every attached JVM holds a lock on its own {@code <key>.ref-<pid>} file. Attaching and detaching both
+ * happen under the key's lock file, and the last JVM to detach stops the server. A JVM that dies loses its
+ * lock, so its reference no longer counts. The server is started through {@link BrowserServerLauncher},
+ * which only allows verified Playwright versions.
+ */
+public class BrowserServer {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserServer.class);
+    private static final Map<String, FileChannel> references = new ConcurrentHashMap<>();
+    private static final Map<Browser, String> remoteBrowsers = new ConcurrentHashMap<>();
+    private static final Set<FileChannel> heldSlots = ConcurrentHashMap.newKeySet();
+
+    private BrowserServer() {
+    }
+
+    public static boolean isEnabled() {
+        return ConfigManager.getBoolean("browser.server.enabled", false) && BrowserServerLauncher.isSupported();
+    }
+
+    /**
+     * Connects to the machine-wide server for the engine, starting it if no live one is published.
+     * @param browserType Browser type of the calling worker's Playwright driver
+     * @param engine Playwright engine name
+     * @param headless Whether the shared browser runs headless
+     * @return Browser connected to the shared server
+     */
+    public static Browser connect(BrowserType browserType, String engine, boolean headless) {
+        String key = engine.toLowerCase() + (headless ? "-headless" : "-headed");
+        Browser browser = browserType.connect(endpoint(key, engine, headless));
+        remoteBrowsers.put(browser, key);
+        browser.onDisconnected(remoteBrowsers::remove);
+        logger.info("Connected to shared {} browser server for thread {}", key, Thread.currentThread().getName());
+        return browser;
+    }
+
+    /**
+     * Creates a context, first taking one of the shared browser's context slots if the browser
+     * is connected to a server. The slot is freed when the context closes.
+     * @param browser Local or shared browser
+     * @param options Context options
+     * @return New browser context
+     */
+    public static BrowserContext newContext(Browser browser, Browser.NewContextOptions options) {
+        String key = remoteBrowsers.get(browser);
+        if (key == null) {
+            return browser.newContext(options);
+        }
+        FileChannel slot = acquireSlot(key);
+        try {
+            BrowserContext context = browser.newContext(options);
+            context.onClose(c -> releaseSlot(slot));
+            return context;
+        } catch (RuntimeException e) {
+            releaseSlot(slot);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops this JVM's references to the shared servers. A server is stopped when no other live JVM
+     * references it, unless {@code browser.server.keep.alive=true}.
+     */
+    public static void shutdown() {
+        boolean keepAlive = ConfigManager.getBoolean("browser.server.keep.alive", false);
+        for (String key : references.keySet()) {
+            detach(key, keepAlive);
+        }
+    }
+
+    private static String endpoint(String key, String engine, boolean headless) {
+        Path dir = directory();
+        Path endpointFile = dir.resolve(key + ".endpoint");
+        synchronized (BrowserServer.class) {
+            try (FileChannel channel = FileChannel.open(dir.resolve(key + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    attach(dir, key);
+                    Optional<String> published = published(endpointFile);
+                    if (published.isPresent()) {
+                        return published.get();
+                    }
+                    return start(key, engine, headless, endpointFile);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to resolve browser server endpoint for " + key, e);
+            }
+        }
+    }
+
+    // Called under the key lock; the reference is held until shutdown or JVM exit
+    private static void attach(Path dir, String key) {
+        if (references.containsKey(key)) {
+            return;
+        }
+        FileChannel reference = tryLockSlot(dir.resolve(key + ".ref-" + ProcessHandle.current().pid()));
+        if (reference == null) {
+            throw new IllegalStateException("Failed to lock browser server reference for " + key);
+        }
+        references.put(key, reference);
+    }
+
+    private static void detach(String key, boolean keepAlive) {
+        Path dir = directory();
+        synchronized (BrowserServer.class) {
+            try (FileChannel channel = FileChannel.open(dir.resolve(key + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    FileChannel reference = references.remove(key);
+                    if (reference != null) {
+                        reference.close();
+                    }
+                    Files.deleteIfExists(dir.resolve(key + ".ref-" + ProcessHandle.current().pid()));
+                    int others = liveReferences(dir, key);
+                    if (keepAlive || others > 0) {
+                        logger.info("Leaving shared {} browser server running, {} other JVMs attached", key, others);
+                        return;
+                    }
+                    stop(dir.resolve(key + ".endpoint"), key);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                logger.error("Failed to detach from shared {} browser server: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    // Reference files that can be locked belong to JVMs that have exited and are removed
+    private static int liveReferences(Path dir, String key) throws IOException {
+        int live = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, key + ".ref-*")) {
+            for (Path file : files) {
+                FileChannel probe = tryLockSlot(file);
+                if (probe == null) {
+                    live++;
+                    continue;
+                }
+                probe.close();
+                Files.deleteIfExists(file);
+            }
+        }
+        return live;
+    }
+
+    private static void stop(Path endpointFile, String key) throws IOException {
+        if (!Files.exists(endpointFile)) {
+            return;
+        }
+        List<String> lines = Files.readAllLines(endpointFile, StandardCharsets.UTF_8);
+        if (lines.size() >= 2) {
+            long pid = Long.parseLong(lines.get(1).trim());
+            ProcessHandle.of(pid).ifPresent(ProcessHandle::destroy);
+            logger.info("Stopped shared {} browser server (pid {})", key, pid);
+        }
+        Files.deleteIfExists(endpointFile);
+    }
+
+    // Endpoint file holds the ws endpoint and the server pid; stale files of dead servers are ignored
+    private static Optional<String> published(Path endpointFile) throws IOException {
+        if (!Files.exists(endpointFile)) {
+            return Optional.empty();
+        }
+        List<String> lines = Files.readAllLines(endpointFile, StandardCharsets.UTF_8);
+        if (lines.size() < 2) {
+            return Optional.empty();
+        }
+        boolean alive = ProcessHandle.of(Long.parseLong(lines.get(1).trim())).map(ProcessHandle::isAlive).orElse(false);
+        return alive ? Optional.of(lines.get(0).trim()) : Optional.empty();
+    }
+
+    private static String start(String key, String engine, boolean headless, Path endpointFile) throws IOException {
+        Path dir = endpointFile.getParent();
+        Path config = dir.resolve(key + ".config.json");
+        Files.writeString(config, "{\"headless\": " + headless + "}", StandardCharsets.UTF_8);
+        Path output = dir.resolve(key + ".log");
+        Files.deleteIfExists(output);
+
+        ProcessBuilder builder = BrowserServerLauncher.processBuilder(engine, config);
+        // Output goes to a file, not a pipe, so the server outlives this JVM cleanly
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(output.toFile());
+        Process process = builder.start();
+
+        long deadline = System.currentTimeMillis() + ConfigManager.getInt("browser.server.start.timeout", 60000);
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Browser server for " + key + " exited: " + Files.readString(output));
+            }
+            Optional<String> endpoint = Files.exists(output)
+                    ? Files.readAllLines(output, StandardCharsets.UTF_8).stream().filter(l -> l.startsWith("ws://")).findFirst()
+                    : Optional.empty();
+            if (endpoint.isPresent()) {
+                Files.writeString(endpointFile, endpoint.get() + "\n" + process.pid() + "\n", StandardCharsets.UTF_8);
+                logger.info("Started shared {} browser server (pid {}) at {}", key, process.pid(), endpoint.get());
+                return endpoint.get();
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        process.destroy();
+        throw new IllegalStateException("Browser server for " + key + " did not publish an endpoint in time");
+    }
+
+    private static FileChannel acquireSlot(String key) {
+        int maxContexts = ConfigManager.getInt("browser.server.max.contexts", 8);
+        long deadline = System.currentTimeMillis() + ConfigManager.getInt("browser.server.slot.timeout", 300000);
+        Path dir = directory();
+        while (System.currentTimeMillis() < deadline) {
+            for (int i = 0; i < maxContexts; i++) {
+                FileChannel channel = tryLockSlot(dir.resolve(key + ".slot-" + i));
+                if (channel != null) {
+                    heldSlots.add(channel);
+                    return channel;
+                }
+            }
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new IllegalStateException("No free context slot on shared " + key + " browser");
+    }
+
+    private static FileChannel tryLockSlot(Path slotFile) {
+        try {
+            FileChannel channel = FileChannel.open(slotFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                if (channel.tryLock() != null) {
+                    return channel;
+                }
+            } catch (OverlappingFileLockException e) {
+                // Held by another thread of this JVM
+            }
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Failed to open slot file {}: {}", slotFile, e.getMessage());
+        }
+        return null;
+    }
+
+    private static void releaseSlot(FileChannel slot) {
+        if (heldSlots.remove(slot)) {
+            try {
+                slot.close();
+            } catch (IOException e) {
+                logger.debug("Failed to release context slot: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static Path directory() {
+        Path dir = Paths.get(ConfigManager.get("browser.server.dir",
+                Paths.get(System.getProperty("java.io.tmpdir"), "playwright-browser-server").toString()));
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create browser server directory " + dir, e);
+        }
+        return dir;
+    }
+}
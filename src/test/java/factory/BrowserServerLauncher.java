@@ -0,0 +1,60 @@
+package factory;
+
+import com.microsoft.playwright.impl.driver.Driver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the {@code playwright launch-server} process for {@link BrowserServer}.
+ * Playwright for Java has no public API to start a browser server, so this goes through the internal
+ * {@code com.microsoft.playwright.impl.driver.Driver} and the driver's undocumented {@code launch-server}
+ * command. Both may change in any release, so they are only used with driver versions listed in
+ * {@link #VERIFIED_VERSIONS}; with any other version the shared server is disabled and workers launch
+ * their own browsers. After a Playwright upgrade, check that a shared server still starts and add the version.
+ */
+final class BrowserServerLauncher {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserServerLauncher.class);
+    // major.minor versions of the Playwright driver the launch-server integration was tested with
+    static final Set<String> VERIFIED_VERSIONS = Set.of("1.48");
+    private static final String version = Driver.class.getPackage().getImplementationVersion();
+    private static final boolean supported = check();
+
+    private BrowserServerLauncher() {
+    }
+
+    /**
+     * @return true if the driver version on the classpath is known to support launch-server
+     */
+    static boolean isSupported() {
+        return supported;
+    }
+
+    /**
+     * @param engine Playwright engine name
+     * @param config Launch options JSON file
+     * @return Process builder running the driver's launch-server command
+     */
+    static ProcessBuilder processBuilder(String engine, Path config) {
+        if (!supported) {
+            throw new IllegalStateException("launch-server is not verified for Playwright driver " + version);
+        }
+        ProcessBuilder builder = Driver.ensureDriverInstalled(Collections.emptyMap(), false).createProcessBuilder();
+        builder.command().addAll(List.of("launch-server", "--browser", engine, "--config", config.toString()));
+        return builder;
+    }
+
+    private static boolean check() {
+        String minor = version == null ? null : version.replaceFirst("^(\\d+\\.\\d+).*", "$1");
+        if (minor != null && VERIFIED_VERSIONS.contains(minor)) {
+            return true;
+        }
+        logger.warn("Shared browser server is disabled: Playwright driver {} is not in the verified versions {}",
+                version, VERIFIED_VERSIONS);
+        return false;
+    }
+}
@@ -0,0 +1,260 @@
+package factory;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Launches browsers in the background before tests need them and hands out
+ * pre-warmed sessions (driver, browser and an open blank context). The context is not navigated:
+ * network routing, resource blocking and tracing are installed by {@link PlaywrightFactory} when a
+ * test adopts it, so the first page load goes through them like any other.
+ * A worker only blocks when no session is ready but one is still warming up for it, and falls back to a cold
+ * launch as soon as the warm-ups it could get a session from have ended.
+ */
+public class BrowserWarmPool {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserWarmPool.class);
+    private static final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger hits = new AtomicInteger();
+    private static final AtomicInteger misses = new AtomicInteger();
+    private static final AtomicInteger failures = new AtomicInteger();
+    private static final AtomicInteger warmed = new AtomicInteger();
+    private static final AtomicLong warmUpNanos = new AtomicLong();
+    private static final AtomicLong maxWarmUpNanos = new AtomicLong();
+    private static final AtomicLong blockedNanos = new AtomicLong();
+
+    private static volatile ExecutorService executor;
+    private static volatile boolean started;
+    private static volatile long waitTimeoutMs;
+
+    private BrowserWarmPool() {
+    }
+
+    /**
+     * Starts warming sessions in the background.
+     * @param sessionsPerEngine Number of sessions to warm per Playwright engine
+     * @param options Launch and viewport settings shared by every session
+     */
+    public static synchronized void start(Map<String, Integer> sessionsPerEngine, WarmOptions options) {
+        if (executor != null) {
+            logger.warn("Browser warm pool already started");
+            return;
+        }
+        int total = sessionsPerEngine.values().stream().mapToInt(Integer::intValue).sum();
+        if (total == 0) {
+            logger.info("No browsers to pre-warm");
+            return;
+        }
+        started = true;
+        waitTimeoutMs = options.waitTimeoutMs();
+        int workers = Math.max(1, Math.min(total, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "browser-warmup-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        sessionsPerEngine.forEach((engine, count) -> {
+            String key = key(engine, options.headless());
+            Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+            for (int i = 0; i < count; i++) {
+                slot.warmingStarted();
+                executor.submit(() -> warm(engine, key, slot, options));
+            }
+        });
+        logger.info("Pre-warming {} browser sessions {} on {} threads", total, sessionsPerEngine, workers);
+    }
+
+    /**
+     * Takes a pre-warmed session for the engine. Returns immediately when one is ready, waits while a
+     * warm-up is still running that no other waiter is counting on, and returns null when the pool has
+     * nothing to offer, including as soon as the last warm-up ends without a session for this caller.
+     * @param browserName Playwright engine name
+     * @param headless Whether the session must be headless
+     * @return Warm session or null on a miss
+     */
+    public static WarmSession take(String browserName, boolean headless) {
+        String key = key(browserName, headless);
+        Slot slot = slots.get(key);
+        WarmSession session = slot == null ? null : slot.take(waitTimeoutMs);
+        if (session == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        logger.info("Pre-warmed {} session taken by thread {}", key, Thread.currentThread().getName());
+        return session;
+    }
+
+    /**
+     * Stops warming and closes every session nobody took.
+     */
+    public static synchronized void shutdown() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        for (Slot slot : slots.values()) {
+            WarmSession session;
+            while ((session = slot.poll()) != null) {
+                session.close();
+            }
+        }
+        logger.info(stats());
+    }
+
+    /**
+     * Summarises pool hits/misses and warm-up latency.
+     * @return Human readable statistics line
+     */
+    public static String stats() {
+        int count = warmed.get();
+        long avgMs = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(warmUpNanos.get() / count);
+        return String.format(
+                "Browser warm pool: %d hits, %d misses, %d warmed (%d failed), warm-up avg %d ms / max %d ms, %d ms blocked waiting",
+                hits.get(), misses.get(), count, failures.get(), avgMs,
+                TimeUnit.NANOSECONDS.toMillis(maxWarmUpNanos.get()), TimeUnit.NANOSECONDS.toMillis(blockedNanos.get()));
+    }
+
+    private static void warm(String engine, String key, Slot slot, WarmOptions options) {
+        long start = System.nanoTime();
+        Playwright playwright = null;
+        Browser browser = null;
+        WarmSession session = null;
+        try {
+            playwright = Playwright.create();
+            BrowserReaper.register(playwright, "warm pool");
+            // Queued sessions count as busy so the idle watch does not kill them before adoption
+            BrowserReaper.markBusy(playwright);
+            BrowserType browserType = switch (engine) {
+                case "firefox" -> playwright.firefox();
+                case "webkit" -> playwright.webkit();
+                default -> playwright.chromium();
+            };
+            browser = BrowserManager.launch(browserType, engine, options.headless());
+            BrowserContext context = BrowserServer.newContext(browser, new Browser.NewContextOptions()
+                    .setViewportSize(options.width(), options.height()));
+            Page page = context.newPage();
+            long elapsed = System.nanoTime() - start;
+            warmUpNanos.addAndGet(elapsed);
+            maxWarmUpNanos.accumulateAndGet(elapsed, Math::max);
+            warmed.incrementAndGet();
+            session = new WarmSession(playwright, browser, context, page);
+            logger.info("Pre-warmed {} session in {} ms", key, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            logger.error("Failed to pre-warm {} session: {}", key, e.getMessage());
+            if (playwright != null) {
+                try {
+                    playwright.close();
+                    BrowserReaper.unregister(playwright);
+                } catch (Exception closeError) {
+                    logger.debug("Failed to close Playwright after warm-up error: {}", closeError.getMessage());
+                }
+            }
+            AdmissionController.browserClosed(browser);
+        } finally {
+            slot.warmingEnded(session);
+        }
+    }
+
+    private static String key(String browserName, boolean headless) {
+        return browserName.toLowerCase() + (headless ? ":headless" : ":headed");
+    }
+
+    // Sessions of one engine and the warm-ups still running for it. Waiters are woken whenever a warm-up
+    // ends, successfully or not, and never outnumber the warm-ups that could still serve them.
+    static final class Slot {
+        private final Deque<WarmSession> sessions = new ArrayDeque<>();
+        private int warming;
+        private int waiting;
+
+        synchronized void warmingStarted() {
+            warming++;
+        }
+
+        synchronized void warmingEnded(WarmSession session) {
+            warming--;
+            if (session != null) {
+                sessions.add(session);
+            }
+            notifyAll();
+        }
+
+        synchronized WarmSession poll() {
+            return sessions.poll();
+        }
+
+        synchronized WarmSession take(long timeoutMs) {
+            WarmSession session = sessions.poll();
+            if (session != null || waiting >= warming) {
+                return session;
+            }
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            waiting++;
+            try {
+                while (sessions.isEmpty() && waiting <= warming) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                waiting--;
+                blockedNanos.addAndGet(System.nanoTime() - start);
+            }
+            return sessions.poll();
+        }
+    }
+
+    /**
+     * Launch and viewport settings used for every pre-warmed session.
+     */
+    public record WarmOptions(boolean headless, int width, int height, long waitTimeoutMs) {
+    }
+
+    /**
+     * A launched driver and browser with one blank context.
+     * The context is handed to the first test; the driver and browser are adopted by a worker that has no
+     * driver yet, and the driver then launches that worker's other engines.
+     */
+    public record WarmSession(Playwright playwright, Browser browser, BrowserContext context, Page page) {
+        void close() {
+            try {
+                playwright.close();
+                BrowserReaper.unregister(playwright);
+            } catch (Exception e) {
+                logger.debug("Failed to close pre-warmed session: {}", e.getMessage());
+            }
+            AdmissionController.browserClosed(browser);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package factory;
+
+import io.qameta.allure.Feature;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class BrowserWarmPoolTest {
+    private static final long TIMEOUT_MS = 60_000;
+
+    private static final BrowserWarmPool.WarmSession SESSION = new BrowserWarmPool.WarmSession(null, null, null, null);
+
+    // Starts take() on its own thread and returns once that thread is blocked in the wait
+    private static CompletableFuture<BrowserWarmPool.WarmSession> waiter(BrowserWarmPool.Slot slot) throws InterruptedException {
+        CompletableFuture<BrowserWarmPool.WarmSession> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> result.complete(slot.take(TIMEOUT_MS)), "warm-pool-waiter");
+        thread.setDaemon(true);
+        thread.start();
+        while (thread.getState() != Thread.State.TIMED_WAITING && !result.isDone()) {
+            Thread.sleep(5);
+        }
+        return result;
+    }
+
+    @Test(description = "A ready session is taken without waiting", groups = {"unit"})
+    @Feature("Browser Warm Pool")
+    public void testReadySession() {
+        BrowserWarmPool.Slot slot = new BrowserWarmPool.Slot();
+        slot.warmingStarted();
+        slot.warmingEnded(SESSION);
+        Assert.assertSame(slot.take(TIMEOUT_MS), SESSION);
+        Assert.assertNull(slot.take(TIMEOUT_MS), "Nothing is left and nothing is warming");
+    }
+
+    @Test(description = "A waiter falls back as soon as the warm-up it waits for fails", groups = {"unit"})
+    @Feature("Browser Warm Pool")
+    public void testWaiterGivesUpWhenWarmUpFails() throws Exception {
+        BrowserWarmPool.Slot slot = new BrowserWarmPool.Slot();
+        slot.warmingStarted();
+        CompletableFuture<BrowserWarmPool.WarmSession> waiting = waiter(slot);
+        slot.warmingEnded(null);
+        Assert.assertNull(waiting.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test(description = "Waiters never outnumber the warm-ups still running", groups = {"unit"})
+    @Feature("Browser Warm Pool")
+    public void testExtraWaitersDoNotWait() throws Exception {
+        BrowserWarmPool.Slot slot = new BrowserWarmPool.Slot();
+        slot.warmingStarted();
+        CompletableFuture<BrowserWarmPool.WarmSession> first = waiter(slot);
+        long start = System.nanoTime();
+        Assert.assertNull(slot.take(TIMEOUT_MS), "A second waiter for one warm-up falls back at once");
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5);
+        slot.warmingEnded(SESSION);
+        Assert.assertSame(first.get(5, TimeUnit.SECONDS), SESSION);
+    }
+
+    @Test(description = "When one of two warm-ups fails, one waiter falls back and the other gets the session", groups = {"unit"})
+    @Feature("Browser Warm Pool")
+    public void testWaitersShrinkWithWarmUps() throws Exception {
+        BrowserWarmPool.Slot slot = new BrowserWarmPool.Slot();
+        slot.warmingStarted();
+        slot.warmingStarted();
+        CompletableFuture<BrowserWarmPool.WarmSession> first = waiter(slot);
+        CompletableFuture<BrowserWarmPool.WarmSession> second = waiter(slot);
+        slot.warmingEnded(null);
+        CompletableFuture.anyOf(first, second).get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(first.isDone() ^ second.isDone(), "Exactly one waiter falls back");
+        CompletableFuture<BrowserWarmPool.WarmSession> remaining = first.isDone() ? second : first;
+        Assert.assertNull((first.isDone() ? first : second).join());
+        slot.warmingEnded(SESSION);
+        Assert.assertSame(remaining.get(5, TimeUnit.SECONDS), SESSION);
+    }
+}
@@ -0,0 +1,100 @@
+package factory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * CPU usage and memory headroom of the cgroup this JVM runs in, the same scope that
+ * {@link Runtime#availableProcessors()} is limited to in a container. Reads cgroup v2
+ * ({@code cpu.stat}, {@code memory.max}) and falls back to the v1 {@code cpuacct} and {@code memory} controllers.
+ */
+final class CgroupStats {
+    // cgroup v1 reports "no limit" as a page-rounded Long.MAX_VALUE
+    private static final long V1_UNLIMITED = 1L << 60;
+
+    private final Path root;
+    private long lastUsageNanos = -1;
+    private long lastSampleNanos;
+
+    CgroupStats(Path root) {
+        this.root = root;
+    }
+
+    static CgroupStats system() {
+        return new CgroupStats(Paths.get("/sys/fs/cgroup"));
+    }
+
+    /**
+     * Average number of cores the cgroup kept busy since the previous call.
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return Busy cores, or null on the first call or without cgroup CPU accounting
+     */
+    Double busyCores(long nowNanos) {
+        Long usage = cpuUsageNanos();
+        if (usage == null) {
+            return null;
+        }
+        Double busy = null;
+        if (lastUsageNanos >= 0 && nowNanos > lastSampleNanos) {
+            busy = (double) Math.max(0, usage - lastUsageNanos) / (nowNanos - lastSampleNanos);
+        }
+        lastUsageNanos = usage;
+        lastSampleNanos = nowNanos;
+        return busy;
+    }
+
+    /**
+     * @return Memory the cgroup may still allocate in MB, or null if it has no limit
+     */
+    Long availableMemoryMb() {
+        String max = read("memory.max");
+        String current = read("memory.current");
+        if (max == null || current == null) {
+            max = read("memory/memory.limit_in_bytes");
+            current = read("memory/memory.usage_in_bytes");
+        }
+        if (max == null || current == null || "max".equals(max)) {
+            return null;
+        }
+        try {
+            long limit = Long.parseLong(max);
+            if (limit >= V1_UNLIMITED) {
+                return null;
+            }
+            return Math.max(0, limit - Long.parseLong(current)) / (1024 * 1024);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Long cpuUsageNanos() {
+        String stat = read("cpu.stat");
+        if (stat != null) {
+            for (String line : stat.split("\n")) {
+                if (line.startsWith("usage_usec ")) {
+                    return parse(line.substring("usage_usec ".length()), 1000);
+                }
+            }
+        }
+        String usage = read("cpuacct/cpuacct.usage");
+        return usage == null ? null : parse(usage, 1);
+    }
+
+    private static Long parse(String value, long factor) {
+        try {
+            return Long.parseLong(value.trim()) * factor;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String read(String file) {
+        try {
+            return Files.readString(root.resolve(file)).trim();
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
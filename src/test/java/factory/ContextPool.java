@@ -0,0 +1,173 @@
+package factory;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded per-worker pool of used BrowserContexts that were reset instead of closed.
+ * A context is only pooled after its state was cleared and it passed a health check;
+ * polluted, crashed or worn-out contexts are closed.
+ */
+public class ContextPool {
+    private static final Logger logger = LoggerFactory.getLogger(ContextPool.class);
+    private static final ThreadLocal<Map<Browser, Deque<PooledContext>>> idle =
+            ThreadLocal.withInitial(IdentityHashMap::new);
+    private static final ThreadLocal<Map<BrowserContext, Integer>> uses =
+            ThreadLocal.withInitial(IdentityHashMap::new);
+
+    private static final AtomicInteger recycled = new AtomicInteger();
+    private static final AtomicInteger reused = new AtomicInteger();
+    private static final AtomicInteger discarded = new AtomicInteger();
+
+    private ContextPool() {
+    }
+
+    /**
+     * Takes an idle, already reset context of the given browser for the current worker.
+     * @param browser Worker-scoped browser
+     * @return Reset context with a single blank page, or null if none is pooled
+     */
+    public static BrowserContext acquire(Browser browser) {
+        Deque<PooledContext> pooled = idle.get().get(browser);
+        if (pooled == null || pooled.isEmpty()) {
+            return null;
+        }
+        PooledContext entry = pooled.pop();
+        if (!browser.isConnected() || entry.context().pages().isEmpty()) {
+            discard(entry.context(), "browser disconnected or page lost while idle");
+            return null;
+        }
+        uses.get().put(entry.context(), entry.uses());
+        reused.incrementAndGet();
+        logger.debug("Reusing recycled context ({} previous uses) for thread {}", entry.uses(), Thread.currentThread().getName());
+        return entry.context();
+    }
+
+    /**
+     * Forgets the use count of an acquired context that is closed instead of released.
+     * @param context Context that will not come back through {@link #release}
+     */
+    static void forget(BrowserContext context) {
+        uses.get().remove(context);
+    }
+
+    /**
+     * Resets a used context and returns it to the pool, or closes it if it cannot be reused.
+     * Never throws: any failure while resetting or checking the context discards it.
+     * @param browser Browser that owns the context
+     * @param context Context the test has finished with
+     * @param poolSize Maximum idle contexts kept per browser
+     * @param maxUses Maximum number of tests a single context may serve
+     */
+    public static void release(Browser browser, BrowserContext context, int poolSize, int maxUses) {
+        int used = uses.get().getOrDefault(context, 0) + 1;
+        uses.get().remove(context);
+        if (used >= maxUses) {
+            discard(context, "reached " + maxUses + " uses");
+            return;
+        }
+        Deque<PooledContext> pooled = idle.get().computeIfAbsent(browser, b -> new ArrayDeque<>());
+        if (pooled.size() >= poolSize) {
+            discard(context, "pool full");
+            return;
+        }
+        String problem;
+        try {
+            reset(context);
+            problem = healthProblem(browser, context);
+        } catch (Exception e) {
+            problem = "reset failed: " + e.getMessage();
+        }
+        if (problem != null) {
+            discard(context, problem);
+            return;
+        }
+        pooled.push(new PooledContext(context, used));
+        recycled.incrementAndGet();
+        logger.debug("Context recycled after {} uses for thread {}", used, Thread.currentThread().getName());
+    }
+
+    /**
+     * Summarises how many contexts were recycled, reused and discarded.
+     * @return Human readable statistics line
+     */
+    public static String stats() {
+        return String.format("Context recycling: %d recycled, %d reused, %d discarded",
+                recycled.get(), reused.get(), discarded.get());
+    }
+
+    // Clears per-origin storage on every open page, then drops pages, cookies, permissions and routes
+    private static void reset(BrowserContext context) {
+        for (Page page : context.pages()) {
+            if (!page.isClosed()) {
+                page.evaluate("() => { try { localStorage.clear(); sessionStorage.clear(); } catch (e) {} }");
+            }
+        }
+        for (Page page : List.copyOf(context.pages())) {
+            page.close();
+        }
+        context.unrouteAll();
+        context.clearCookies();
+        context.clearPermissions();
+        context.setExtraHTTPHeaders(Map.of());
+        context.setOffline(false);
+        context.newPage();
+    }
+
+    // Returns why the context must not be reused, or null if it is clean and responsive
+    private static String healthProblem(Browser browser, BrowserContext context) {
+        if (!browser.isConnected()) {
+            return "browser disconnected";
+        }
+        List<Page> pages = context.pages();
+        if (pages.size() != 1 || pages.get(0).isClosed()) {
+            return "unexpected pages after reset: " + pages.size();
+        }
+        try {
+            pages.get(0).evaluate("() => 1");
+        } catch (Exception e) {
+            return "page unresponsive: " + e.getMessage();
+        }
+        JSONObject state;
+        try {
+            state = new JSONObject(context.storageState());
+        } catch (Exception e) {
+            return "storage state unreadable: " + e.getMessage();
+        }
+        if (state.getJSONArray("cookies").length() > 0) {
+            return "cookies survived reset";
+        }
+        JSONArray origins = state.getJSONArray("origins");
+        for (int i = 0; i < origins.length(); i++) {
+            if (origins.getJSONObject(i).getJSONArray("localStorage").length() > 0) {
+                return "localStorage left for " + origins.getJSONObject(i).getString("origin");
+            }
+        }
+        return null;
+    }
+
+    private static void discard(BrowserContext context, String reason) {
+        discarded.incrementAndGet();
+        logger.info("Discarding browser context for thread {}: {}", Thread.currentThread().getName(), reason);
+        try {
+            context.close();
+        } catch (Exception e) {
+            logger.debug("Failed to close discarded context: {}", e.getMessage());
+        }
+    }
+
+    private record PooledContext(BrowserContext context, int uses) {
+    }
+}
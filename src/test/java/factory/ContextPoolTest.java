@@ -0,0 +1,99 @@
+package factory;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import io.qameta.allure.Feature;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ContextPoolTest {
+
+    // Minimal in-memory context: pages can be opened and closed, storageState() is given by the test
+    private static final class FakeContext {
+        private final List<Page> pages = new ArrayList<>();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final RuntimeException storageStateError;
+        private final BrowserContext proxy;
+
+        FakeContext(RuntimeException storageStateError) {
+            this.storageStateError = storageStateError;
+            this.proxy = (BrowserContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{BrowserContext.class}, (self, method, args) -> switch (method.getName()) {
+                        case "pages" -> List.copyOf(pages);
+                        case "newPage" -> newPage();
+                        case "storageState" -> {
+                            if (this.storageStateError != null) {
+                                throw this.storageStateError;
+                            }
+                            yield "{\"cookies\":[],\"origins\":[]}";
+                        }
+                        case "close" -> {
+                            closed.set(true);
+                            yield null;
+                        }
+                        case "hashCode" -> System.identityHashCode(self);
+                        case "equals" -> self == args[0];
+                        default -> null;
+                    });
+            newPage();
+        }
+
+        private Page newPage() {
+            AtomicBoolean pageClosed = new AtomicBoolean();
+            Page[] page = new Page[1];
+            page[0] = (Page) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Page.class},
+                    (self, method, args) -> switch (method.getName()) {
+                        case "isClosed" -> pageClosed.get();
+                        case "evaluate" -> 1;
+                        case "close" -> {
+                            pageClosed.set(true);
+                            pages.remove(page[0]);
+                            yield null;
+                        }
+                        case "hashCode" -> System.identityHashCode(self);
+                        case "equals" -> self == args[0];
+                        default -> null;
+                    });
+            pages.add(page[0]);
+            return page[0];
+        }
+    }
+
+    private static Browser connectedBrowser() {
+        return (Browser) Proxy.newProxyInstance(ContextPoolTest.class.getClassLoader(), new Class<?>[]{Browser.class},
+                (self, method, args) -> switch (method.getName()) {
+                    case "isConnected" -> true;
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    default -> null;
+                });
+    }
+
+    @Test(description = "A clean context is reset and handed out again", groups = {"unit"})
+    @Feature("Context Recycling")
+    public void testRecycle() {
+        Browser browser = connectedBrowser();
+        FakeContext context = new FakeContext(null);
+        ContextPool.release(browser, context.proxy, 2, 25);
+        Assert.assertFalse(context.closed.get());
+        Assert.assertSame(ContextPool.acquire(browser), context.proxy);
+        Assert.assertNull(ContextPool.acquire(browser), "The pooled context is handed out once");
+    }
+
+    @Test(description = "A context whose storage state cannot be read is discarded without throwing", groups = {"unit"})
+    @Feature("Context Recycling")
+    public void testStorageStateFailureDiscards() {
+        Browser browser = connectedBrowser();
+        FakeContext context = new FakeContext(new PlaywrightException("Target closed"));
+        ContextPool.release(browser, context.proxy, 2, 25);
+        Assert.assertTrue(context.closed.get(), "The context should be closed");
+        Assert.assertNull(ContextPool.acquire(browser), "The context should not be pooled");
+    }
+}
@@ -0,0 +1,101 @@
+package factory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Orders the end of a UI test: failure artifacts are captured first, then the test's context is
+ * always closed exactly once. Works whichever of {@code @AfterMethod} and the failure listener
+ * runs first; contexts whose failure listener never fired are closed at the next test on the
+ * same thread or at suite end.
+ */
+public class LifecycleCoordinator {
+    private static final Logger logger = LoggerFactory.getLogger(LifecycleCoordinator.class);
+    private static final Map<ITestResult, Pending> awaitingCapture = new ConcurrentHashMap<>();
+    private static final Set<ITestResult> captured = ConcurrentHashMap.newKeySet();
+
+    private LifecycleCoordinator() {
+    }
+
+    /**
+     * Called from teardown. Passed and skipped tests are closed right away; failed tests are closed
+     * once their failure capture has run.
+     * @param result Result of the finished test
+     * @param factory The test's factory, may be null if setup never created one
+     */
+    public static void afterTest(ITestResult result, PlaywrightFactory factory) {
+        closeAbandoned(Thread.currentThread());
+        if (factory == null) {
+            captured.remove(result);
+            return;
+        }
+        if (result.getStatus() == ITestResult.SUCCESS || result.getStatus() == ITestResult.SKIP) {
+            factory.close();
+            return;
+        }
+        if (captured.remove(result)) {
+            factory.discard();
+            return;
+        }
+        logger.info("Deferring close until failure capture for thread {}", Thread.currentThread().getName());
+        awaitingCapture.put(result, new Pending(factory, Thread.currentThread()));
+    }
+
+    /**
+     * Called from failure listeners. Runs the capture against the test's factory and closes it
+     * if teardown already ran.
+     * @param result Result of the failed test
+     * @param capture Failure capture (screenshot, trace, ...) needing a live page
+     */
+    public static void onFailure(ITestResult result, Consumer<PlaywrightFactory> capture) {
+        Pending pending = awaitingCapture.remove(result);
+        PlaywrightFactory factory = pending != null ? pending.factory() : TestContext.getFactory();
+        if (factory == null) {
+            logger.warn("No browser context to capture for failed test {}", result.getName());
+            return;
+        }
+        try {
+            capture.accept(factory);
+        } catch (Exception e) {
+            logger.error("Failure capture failed for test {}: {}", result.getName(), e.getMessage());
+        }
+        if (pending != null) {
+            factory.discard();
+        } else {
+            captured.add(result);
+        }
+    }
+
+    /**
+     * Closes every context still waiting for a failure capture. Called at suite end.
+     */
+    public static void closeAbandoned() {
+        awaitingCapture.forEach((result, pending) -> {
+            logger.warn("Closing context of {} whose failure capture never ran", result.getName());
+            pending.factory().discard();
+        });
+        awaitingCapture.clear();
+        captured.clear();
+    }
+
+    // A new test on a thread means the failure listener for its previous test is done
+    private static void closeAbandoned(Thread thread) {
+        awaitingCapture.entrySet().removeIf(entry -> {
+            if (entry.getValue().thread() != thread) {
+                return false;
+            }
+            logger.warn("Closing context of {} whose failure capture never ran", entry.getKey().getName());
+            entry.getValue().factory().discard();
+            return true;
+        });
+    }
+
+    private record Pending(PlaywrightFactory factory, Thread thread) {
+    }
+}
@@ -2,34 +2,132 @@ package factory;
 
 import com.microsoft.playwright.Browser;
 import com.microsoft.playwright.BrowserContext;
-import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.Page;
-import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.Video;
+import config.ConfigManager;
+import factory.network.NetworkReplay;
+import factory.network.ResourcePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Creates an isolated BrowserContext and Page for a single test on top of the
+ * worker-scoped Browser provided by {@link BrowserManager}. With {@code context.recycle=true}
+ * finished contexts are reset and pooled by {@link ContextPool} instead of being closed.
+ */
 public class PlaywrightFactory {
     private static final Logger logger = LoggerFactory.getLogger(PlaywrightFactory.class);
-    private final Playwright playwright;
     private final Browser browser;
     private final BrowserContext context;
     private final Page page;
+    private final boolean recycle;
+    private final ResourcePolicy.Stats blockStats;
+    private final AdmissionController.Permit permit;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean tracing;
+    private final boolean video;
+    private volatile boolean videoKept;
 
     public PlaywrightFactory(String browserName, boolean headless, int width, int height) {
+        this(browserName, headless, width, height, null);
+    }
+
+    /**
+     * Creates the test's context, optionally starting from a cached storageState snapshot.
+     * @param snapshot Name of a routine registered with {@link StorageStateCache}, or null for a clean context
+     */
+    public PlaywrightFactory(String browserName, boolean headless, int width, int height, String snapshot) {
         logger.info("Initializing browser: {} (headless: {}) for thread {}", browserName, headless, Thread.currentThread().getName());
-        playwright = Playwright.create();
+        // A worker that has to launch a browser reserves its resident weight, and while it waits its other
+        // engines' idle browsers are closed to make room
+        permit = AdmissionController.acquire(browserName, !BrowserManager.hasBrowser(browserName, headless),
+                () -> BrowserManager.closeOtherBrowsers(browserName, headless));
+        video = VideoStore.tryStart();
+        Browser obtained = null;
+        BrowserContext opened = null;
+        Page openedPage = null;
+        try {
+            browser = obtained = BrowserManager.getBrowser(browserName, headless);
+            permit.browserReady();
+            // Snapshot and video contexts need options at creation, so they never take a warm or recycled one
+            boolean fresh = snapshot != null || video;
+            recycle = !fresh && ConfigManager.getBoolean("context.recycle", false);
+            BrowserContext warmContext = !fresh ? usable(BrowserManager.takeWarmContext(browserName, headless)) : null;
+            BrowserContext recycledContext = warmContext == null && recycle ? ContextPool.acquire(browser) : null;
+            if (snapshot != null) {
+                context = opened = BrowserServer.newContext(browser, withVideo(new Browser.NewContextOptions()
+                        .setViewportSize(width, height)
+                        .setStorageStatePath(StorageStateCache.resolve(snapshot, browser, browserName, width, height))));
+                page = openedPage = context.newPage();
+                logger.info("Browser context created from storage state '{}' for thread {}", snapshot, Thread.currentThread().getName());
+            } else if (warmContext != null) {
+                context = opened = warmContext;
+                page = warmContext.pages().get(0);
+                logger.info("Using pre-warmed browser context for thread {}", Thread.currentThread().getName());
+            } else if (recycledContext != null) {
+                context = opened = recycledContext;
+                page = recycledContext.pages().get(0);
+                logger.info("Using recycled browser context for thread {}", Thread.currentThread().getName());
+            } else {
+                context = opened = BrowserServer.newContext(browser, withVideo(new Browser.NewContextOptions()
+                        .setViewportSize(width, height)));
+                page = openedPage = context.newPage();
+                logger.info("Browser context initialized successfully for thread {}", Thread.currentThread().getName());
+            }
+            blockStats = configureContext(context);
+            tracing = TraceStore.start(context);
+        } catch (RuntimeException e) {
+            // Nothing was handed to the test yet, so whatever this constructor holds goes back here
+            Video recording = video ? videoOf(openedPage) : null;
+            if (opened != null) {
+                ContextPool.forget(opened);
+                closeQuietly(opened);
+            }
+            if (video) {
+                VideoStore.abandon(recording);
+            }
+            BrowserManager.release(obtained);
+            permit.release();
+            throw e;
+        }
+    }
+
+    // A warm context that lost its page is closed, so the test falls back to a recycled or new one
+    private static BrowserContext usable(BrowserContext warmContext) {
+        if (warmContext == null) {
+            return null;
+        }
+        try {
+            if (!warmContext.pages().isEmpty()) {
+                return warmContext;
+            }
+            logger.warn("Pre-warmed browser context has no page, closing it for thread {}", Thread.currentThread().getName());
+        } catch (RuntimeException e) {
+            logger.warn("Pre-warmed browser context unusable for thread {}: {}", Thread.currentThread().getName(), e.getMessage());
+        }
+        closeQuietly(warmContext);
+        return null;
+    }
 
-        BrowserType browserType = switch (browserName.toLowerCase()) {
-            case "firefox" -> playwright.firefox();
-            case "webkit" -> playwright.webkit();
-            default -> playwright.chromium();
-        };
+    private static void closeQuietly(BrowserContext context) {
+        try {
+            context.close();
+        } catch (RuntimeException e) {
+            logger.debug("Failed to close browser context: {}", e.getMessage());
+        }
+    }
+
+    private Browser.NewContextOptions withVideo(Browser.NewContextOptions options) {
+        return video ? VideoStore.record(options) : options;
+    }
 
-        browser = browserType.launch(new BrowserType.LaunchOptions().setHeadless(headless));
-        context = browser.newContext(new Browser.NewContextOptions()
-                .setViewportSize(width, height));
-        page = context.newPage();
-        logger.info("Browser initialized successfully for thread {}", Thread.currentThread().getName());
+    // Installs per-context routing; runs for new, warm and recycled contexts alike.
+    // The resource policy is registered last so it sees requests before the network archive.
+    private static ResourcePolicy.Stats configureContext(BrowserContext context) {
+        NetworkReplay.install(context);
+        return ResourcePolicy.install(context);
     }
 
     public Page getPage() {
@@ -40,22 +138,118 @@ public class PlaywrightFactory {
         return context;
     }
 
+    public Browser getBrowser() {
+        return browser;
+    }
+
+    /**
+     * @return Requests blocked in this test's context, or null if no resource policy applies
+     */
+    public ResourcePolicy.Stats getBlockStats() {
+        return blockStats;
+    }
+
+    /**
+     * Writes the test's trace into the Allure results; call for a failed test before it is closed.
+     * @param testName Name of the failed test
+     */
+    public void saveTrace(String testName) {
+        if (tracing) {
+            tracing = false;
+            TraceStore.save(context, testName);
+        }
+    }
+
+    /**
+     * Keeps the test's video and attaches it to Allure. Closes the test's context right away, because the
+     * video is only complete then, so call it last for a failed test while its Allure test case is still open.
+     */
+    public void keepVideo() {
+        if (video) {
+            videoKept = true;
+            discard();
+        }
+    }
+
+    /**
+     * Finishes the test's context. In recycling mode the context is reset and returned to
+     * the pool; otherwise the Page and BrowserContext are closed. The Browser and Playwright
+     * driver stay alive for the next test on this worker and are closed by {@link BrowserManager#shutdown()}.
+     * Only the first call to close() or {@link #discard()} has an effect.
+     */
     public void close() {
-        if (page != null) {
-            page.close();
-            logger.info("Page closed for thread {}", Thread.currentThread().getName());
+        if (closed.getAndSet(true)) {
+            return;
         }
-        if (context != null) {
-            context.close();
-            logger.info("Browser context closed for thread {}", Thread.currentThread().getName());
+        logBlockStats();
+        if (recycle && context != null) {
+            try {
+                // A recycled context stays open, so its trace must be dropped explicitly
+                if (tracing) {
+                    tracing = false;
+                    TraceStore.discard(context);
+                }
+                ContextPool.release(browser, context,
+                        ConfigManager.getInt("context.recycle.pool.size", 2),
+                        ConfigManager.getInt("context.recycle.max.uses", 25));
+            } finally {
+                BrowserManager.release(browser);
+                permit.release();
+            }
+            return;
         }
-        if (browser != null) {
-            browser.close();
-            logger.info("Browser closed for thread {}", Thread.currentThread().getName());
+        closeContext();
+    }
+
+    /**
+     * Closes the Page and BrowserContext without recycling, e.g. after a failed test.
+     */
+    public void discard() {
+        if (closed.getAndSet(true)) {
+            return;
         }
-        if (playwright != null) {
-            playwright.close();
-            logger.info("Playwright closed for thread {}", Thread.currentThread().getName());
+        logBlockStats();
+        closeContext();
+    }
+
+    private void logBlockStats() {
+        if (blockStats != null) {
+            logger.info("Resource policy for thread {}: {}", Thread.currentThread().getName(), blockStats);
+        }
+    }
+
+    private void closeContext() {
+        // The video file is only complete once the context is closed
+        Video recording = video ? videoOf(page) : null;
+        boolean videoFinished = false;
+        try {
+            long start = System.nanoTime();
+            if (page != null && !page.isClosed()) {
+                page.close();
+                logger.info("Page closed for thread {}", Thread.currentThread().getName());
+            }
+            if (context != null) {
+                context.close();
+                logger.info("Browser context closed for thread {}", Thread.currentThread().getName());
+            }
+            if (recording != null) {
+                videoFinished = true;
+                VideoStore.finish(recording, videoKept, System.nanoTime() - start);
+            }
+        } finally {
+            if (video && !videoFinished) {
+                VideoStore.abandon(recording);
+            }
+            BrowserManager.release(browser);
+            permit.release();
+        }
+    }
+
+    private static Video videoOf(Page page) {
+        try {
+            return page == null ? null : page.video();
+        } catch (RuntimeException e) {
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+package factory;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * On-disk cache of {@link BrowserContext#storageState()} snapshots produced by named setup routines.
+ * A routine runs once per run (or once per {@code storage.state.ttl} seconds) for each combination
+ * of snapshot name, {@code ui.url} and browser engine; later contexts start from the saved file.
+ * A run is identified by the {@code run.id} system property, so every JVM and shard of one run shares
+ * the snapshot; without it each JVM counts as its own run. Population is serialised per key inside the
+ * JVM and across JVMs through a lock file.
+ */
+public class StorageStateCache {
+    private static final Logger logger = LoggerFactory.getLogger(StorageStateCache.class);
+    private static final Map<String, Consumer<Page>> routines = new ConcurrentHashMap<>();
+    private static final Map<String, Object> keyLocks = new ConcurrentHashMap<>();
+    private static final String runId = runId();
+
+    private StorageStateCache() {
+    }
+
+    /**
+     * Registers a setup routine. It receives a page already navigated to {@code ui.url}.
+     * @param name Snapshot name used by tests
+     * @param routine Steps that bring the context into the desired state
+     */
+    public static void register(String name, Consumer<Page> routine) {
+        routines.put(name, routine);
+    }
+
+    /**
+     * Returns the snapshot file for the name, running its routine first if the cached file is missing or stale.
+     * @param name Registered snapshot name
+     * @param browser Worker-scoped browser used to run the routine
+     * @param engine Playwright engine name, part of the cache key
+     * @param width Viewport width for the routine's context
+     * @param height Viewport height for the routine's context
+     * @return Path to a storageState JSON file
+     */
+    public static Path resolve(String name, Browser browser, String engine, int width, int height) {
+        Consumer<Page> routine = routines.get(name);
+        if (routine == null) {
+            throw new IllegalArgumentException("No storage state routine registered for: " + name);
+        }
+        String url = ConfigManager.get("ui.url");
+        long ttlSeconds = ConfigManager.getInt("storage.state.ttl", 0);
+        String suffix = ttlSeconds > 0 ? "" : "-run-" + hash(runId);
+        Path file = directory().resolve(name + "-" + engine.toLowerCase() + "-" + hash(url) + suffix + ".json");
+        if (isFresh(file, ttlSeconds)) {
+            logger.debug("Storage state {} is fresh for thread {}", file, Thread.currentThread().getName());
+            return file;
+        }
+        synchronized (keyLocks.computeIfAbsent(file.toString(), k -> new Object())) {
+            Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    if (!isFresh(file, ttlSeconds)) {
+                        populate(name, routine, browser, url, width, height, file);
+                    }
+                    return file;
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to populate storage state " + file, e);
+            }
+        }
+    }
+
+    private static void populate(String name, Consumer<Page> routine, Browser browser, String url,
+                                 int width, int height, Path file) throws IOException {
+        long start = System.currentTimeMillis();
+        logger.info("Running storage state routine '{}' for thread {}", name, Thread.currentThread().getName());
+        Path temp = file.resolveSibling(file.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+        BrowserContext context = BrowserServer.newContext(browser, new Browser.NewContextOptions().setViewportSize(width, height));
+        try {
+            Page page = context.newPage();
+            if (url != null) {
+                page.navigate(url);
+            }
+            routine.accept(page);
+            context.storageState(new BrowserContext.StorageStateOptions().setPath(temp));
+        } finally {
+            context.close();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Storage state '{}' saved to {} in {} ms", name, file, System.currentTimeMillis() - start);
+    }
+
+    // Per-run files carry the run id in their name, so existing means fresh
+    private static boolean isFresh(Path file, long ttlSeconds) {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        if (ttlSeconds <= 0) {
+            return true;
+        }
+        try {
+            return System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() < ttlSeconds * 1000;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String runId() {
+        String id = System.getProperty("run.id", "").trim();
+        if (!id.isEmpty()) {
+            return id;
+        }
+        String fallback = ProcessHandle.current().pid() + "-" + ManagementFactory.getRuntimeMXBean().getStartTime();
+        logger.info("run.id is not set, storage state snapshots are shared by this JVM only ({})", fallback);
+        return fallback;
+    }
+
+    private static Path directory() {
+        Path dir = Paths.get(ConfigManager.get("storage.state.dir", "target/storage-state"));
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create storage state directory " + dir, e);
+        }
+        return dir;
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
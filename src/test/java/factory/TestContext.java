@@ -5,53 +5,87 @@ import com.microsoft.playwright.Page;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Thread-bound bridge to the current test's {@link TestScope}. Test setup, teardown and listeners
+ * run on the test's own thread and look the scope up here; page objects and steps receive it explicitly.
+ * The getters sit on the hot path, so their logging is DEBUG behind a level check.
+ */
 public class TestContext {
     private static final Logger logger = LoggerFactory.getLogger(TestContext.class);
     private static final ThreadLocal<BrowserContext> browserContext = new ThreadLocal<>();
     private static final ThreadLocal<Page> page = new ThreadLocal<>();
     private static final ThreadLocal<PlaywrightFactory> factory = new ThreadLocal<>();
+    private static final ThreadLocal<TestScope> scope = new ThreadLocal<>();
+
+    public static void setScope(TestScope testScope) {
+        scope.set(testScope);
+        setFactory(testScope.factory());
+        setBrowserContext(testScope.browserContext());
+        setPage(testScope.page());
+    }
+
+    public static TestScope getScope() {
+        return scope.get();
+    }
 
     public static void setBrowserContext(BrowserContext context) {
         browserContext.set(context);
-        logger.info("BrowserContext set for thread {}", Thread.currentThread().getName());
+        if (logger.isDebugEnabled()) {
+            logger.debug("BrowserContext set for thread {}", Thread.currentThread().getName());
+        }
     }
 
     public static BrowserContext getBrowserContext() {
         BrowserContext context = browserContext.get();
-        logger.info("Retrieved BrowserContext for thread {}", Thread.currentThread().getName());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Retrieved BrowserContext for thread {}", Thread.currentThread().getName());
+        }
         return context;
     }
 
     public static void setPage(Page pg) {
         page.set(pg);
-        logger.info("Page set for thread {}", Thread.currentThread().getName());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Page set for thread {}", Thread.currentThread().getName());
+        }
     }
 
     public static Page getPage() {
         Page pg = page.get();
-        logger.info("Retrieved Page for thread {}", Thread.currentThread().getName());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Retrieved Page for thread {}", Thread.currentThread().getName());
+        }
         return pg;
     }
 
     public static void setFactory(PlaywrightFactory f) {
         factory.set(f);
-        logger.info("PlaywrightFactory set for thread {}", Thread.currentThread().getName());
+        if (logger.isDebugEnabled()) {
+            logger.debug("PlaywrightFactory set for thread {}", Thread.currentThread().getName());
+        }
     }
 
     public static PlaywrightFactory getFactory() {
         PlaywrightFactory f = factory.get();
-        logger.info("Retrieved PlaywrightFactory for thread {}", Thread.currentThread().getName());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Retrieved PlaywrightFactory for thread {}", Thread.currentThread().getName());
+        }
         return f;
     }
 
     public static void removeFactory() {
         factory.remove();
-        logger.info("PlaywrightFactory removed for thread {}", Thread.currentThread().getName());
+        if (logger.isDebugEnabled()) {
+            logger.debug("PlaywrightFactory removed for thread {}", Thread.currentThread().getName());
+        }
     }
 
     public static void remove() {
         browserContext.remove();
         page.remove();
-        logger.info("TestContext cleared for thread {}", Thread.currentThread().getName());
+        scope.remove();
+        if (logger.isDebugEnabled()) {
+            logger.debug("TestContext cleared for thread {}", Thread.currentThread().getName());
+        }
     }
 }
\ No newline at end of file
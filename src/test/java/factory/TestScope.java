@@ -0,0 +1,44 @@
+package factory;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+
+/**
+ * Handle to one test's browser state, passed explicitly to page objects and steps.
+ * Unlike {@link TestContext} it is not looked up through a thread-local, so it can be handed to
+ * other (e.g. virtual) threads for API or bookkeeping work. Playwright objects are not thread-safe:
+ * the {@link Page} and {@link BrowserContext} must only be used on the thread that owns the test.
+ */
+public final class TestScope {
+    private final String name;
+    private final PlaywrightFactory factory;
+
+    public TestScope(String name, PlaywrightFactory factory) {
+        if (factory == null || factory.getPage() == null) {
+            throw new IllegalStateException("Page is null. Ensure the browser is set up before creating a TestScope.");
+        }
+        this.name = name;
+        this.factory = factory;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public PlaywrightFactory factory() {
+        return factory;
+    }
+
+    public Page page() {
+        return factory.getPage();
+    }
+
+    public BrowserContext browserContext() {
+        return factory.getBrowserContext();
+    }
+
+    @Override
+    public String toString() {
+        return "TestScope[" + name + "]";
+    }
+}
@@ -0,0 +1,125 @@
+package factory;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Tracing;
+import config.ConfigManager;
+import io.qameta.allure.Allure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Failure-only Playwright tracing. Every test context records a trace ({@code trace.mode=on-failure});
+ * passing tests drop it without writing anything, failing tests get it as a zip attachment in the
+ * Allure results. Kept traces share a byte budget ({@code trace.max.total.mb}) that is checked before
+ * a trace is attached: once it is used up, later traces are dropped. Attached traces are never deleted,
+ * so every attachment in the report has its file.
+ */
+public final class TraceStore {
+    private static final Logger logger = LoggerFactory.getLogger(TraceStore.class);
+    private static final AtomicInteger saved = new AtomicInteger();
+    private static final AtomicInteger dropped = new AtomicInteger();
+    private static long keptBytes;
+
+    private TraceStore() {
+    }
+
+    /**
+     * Starts tracing the context if tracing is enabled.
+     * @param context Fresh, warm or recycled test context
+     * @return true if a trace is being recorded
+     */
+    static boolean start(BrowserContext context) {
+        if (!"on-failure".equalsIgnoreCase(ConfigManager.get("trace.mode", "on-failure"))) {
+            return false;
+        }
+        try {
+            context.tracing().start(new Tracing.StartOptions()
+                    .setSnapshots(ConfigManager.getBoolean("trace.snapshots", true))
+                    .setScreenshots(ConfigManager.getBoolean("trace.screenshots", true))
+                    .setSources(ConfigManager.getBoolean("trace.sources", false)));
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to start tracing for thread {}: {}", Thread.currentThread().getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Drops the trace without writing it; only needed for contexts that stay open, closing a
+     * context discards its trace anyway.
+     * @param context Traced context
+     */
+    static void discard(BrowserContext context) {
+        try {
+            context.tracing().stop();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to discard trace for thread {}: {}", Thread.currentThread().getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the trace into the Allure results as an attachment of the current test.
+     * @param context Traced context
+     * @param testName Name used in the attachment title
+     */
+    static void save(BrowserContext context, String testName) {
+        Path results = Paths.get(ConfigManager.get("allure.results.directory", "allure-results"));
+        Path staged = null;
+        try {
+            // Staged next to the results, so the size is known before anything is attached
+            Files.createDirectories(results);
+            staged = Files.createTempFile(results.toAbsolutePath(), "trace-", ".zip.tmp");
+            context.tracing().stop(new Tracing.StopOptions().setPath(staged));
+            long size = Files.size(staged);
+            if (!reserve(size)) {
+                dropped.incrementAndGet();
+                logger.warn("Trace budget of {} MB used up, dropped the trace of {}",
+                        ConfigManager.getInt("trace.max.total.mb", 512), testName);
+                return;
+            }
+            String source = Allure.getLifecycle().prepareAttachment("Playwright Trace", "application/zip", ".zip");
+            Path file = results.resolve(source);
+            Files.move(staged, file, StandardCopyOption.REPLACE_EXISTING);
+            saved.incrementAndGet();
+            logger.info("Trace of {} saved to {} ({} KB) for thread {}", testName, file, size / 1024, Thread.currentThread().getName());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to save trace of {}: {}", testName, e.getMessage());
+        } finally {
+            deleteStaged(staged);
+        }
+    }
+
+    /**
+     * @return Trace retention totals, for the suite-end log
+     */
+    public static synchronized String stats() {
+        return String.format("Traces: %d saved using %d KB, %d dropped over budget", saved.get(), keptBytes / 1024, dropped.get());
+    }
+
+    private static synchronized boolean reserve(long size) {
+        long budget = ConfigManager.getInt("trace.max.total.mb", 512) * 1024L * 1024L;
+        if (keptBytes + size > budget) {
+            return false;
+        }
+        keptBytes += size;
+        return true;
+    }
+
+    private static void deleteStaged(Path staged) {
+        if (staged == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(staged);
+        } catch (IOException e) {
+            logger.debug("Failed to delete staged trace {}: {}", staged, e.getMessage());
+        }
+    }
+}
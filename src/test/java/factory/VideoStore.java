@@ -0,0 +1,304 @@
+package factory;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.Video;
+import config.ConfigManager;
+import io.qameta.allure.Allure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Video for failed tests only ({@code video.mode=on-failure}). Every test context records, but the
+ * file is deleted as soon as a passing test's context closes. A failed test's context is closed while its
+ * Allure test case is still open; the finished video is staged in the Allure results and only attached once
+ * it is in place, then optionally trimmed in place to its last {@code video.trim.seconds} by ffmpeg in the
+ * background. At most {@code video.max.concurrent} contexts record at once and kept videos share a byte budget
+ * ({@code video.max.total.mb}) that is checked with the staged size before a video is attached: once it is
+ * used up, later failures get no video. Attached videos are never deleted, and a raw recording that cannot be
+ * kept is deleted on every failure path.
+ */
+public final class VideoStore {
+    private static final Logger logger = LoggerFactory.getLogger(VideoStore.class);
+    private static final Semaphore recording = new Semaphore(ConfigManager.getInt("video.max.concurrent", 8));
+    private static long keptBytes;
+
+    private static final AtomicInteger recorded = new AtomicInteger();
+    private static final AtomicInteger skipped = new AtomicInteger();
+    private static final AtomicInteger deleted = new AtomicInteger();
+    private static final AtomicInteger attached = new AtomicInteger();
+    private static final AtomicInteger trimmed = new AtomicInteger();
+    private static final AtomicInteger dropped = new AtomicInteger();
+    private static final AtomicLong deletedBytes = new AtomicLong();
+    private static final AtomicLong closeNanos = new AtomicLong();
+
+    private static ExecutorService executor;
+
+    private VideoStore() {
+    }
+
+    /**
+     * Reserves a recording slot for a new test context.
+     * @return true if the context should record video
+     */
+    static boolean tryStart() {
+        if (!"on-failure".equalsIgnoreCase(ConfigManager.get("video.mode", "off"))) {
+            return false;
+        }
+        if (!recording.tryAcquire()) {
+            skipped.incrementAndGet();
+            logger.info("Video slots exhausted, recording without video for thread {}", Thread.currentThread().getName());
+            return false;
+        }
+        recorded.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Adds video recording to the options of a new context.
+     * @param options Context options
+     * @return The same options
+     */
+    static Browser.NewContextOptions record(Browser.NewContextOptions options) {
+        options.setRecordVideoDir(rawDirectory());
+        int width = ConfigManager.getInt("video.width", 0);
+        int height = ConfigManager.getInt("video.height", 0);
+        if (width > 0 && height > 0) {
+            options.setRecordVideoSize(width, height);
+        }
+        return options;
+    }
+
+    /**
+     * Called after the recording context has closed, which finalizes the file. A kept video is attached to the
+     * current Allure test case, so for a failed test this must run while the test case is still open.
+     * @param video The test page's video
+     * @param keep Whether the test failed and its video should be attached
+     * @param closeTime Nanoseconds the context took to close, i.e. to finish the recording
+     */
+    static void finish(Video video, boolean keep, long closeTime) {
+        closeNanos.addAndGet(closeTime);
+        Path raw = localPath(video);
+        boolean remote = raw == null;
+        try {
+            if (!keep) {
+                deleted.incrementAndGet();
+                return;
+            }
+            if (remote) {
+                // Remote browsers stream the file over the connection
+                raw = rawDirectory().resolve(UUID.randomUUID() + ".webm");
+                Files.createDirectories(raw.toAbsolutePath().getParent());
+                video.saveAs(raw);
+            }
+            attach(raw);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to finish video for thread {}: {}", Thread.currentThread().getName(), e.getMessage());
+        } finally {
+            if (remote) {
+                deleteRemote(video);
+            }
+            deleteRaw(raw);
+            recording.release();
+        }
+    }
+
+    /**
+     * Releases the recording slot of a context that was never closed normally and deletes what it recorded.
+     * @param video The test page's video, or null if the page never existed
+     */
+    static void abandon(Video video) {
+        try {
+            // Remote recordings live with the browser server and go when their context does
+            deleteRaw(video == null ? null : localPath(video));
+        } finally {
+            recording.release();
+        }
+    }
+
+    /**
+     * Waits for pending trims. Called at suite end.
+     */
+    public static void flush() {
+        ExecutorService current;
+        synchronized (VideoStore.class) {
+            current = executor;
+            executor = null;
+        }
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(ConfigManager.getInt("video.flush.timeout", 120000), TimeUnit.MILLISECONDS)) {
+                logger.warn("Video processing still running after flush timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return Recording overhead and retention totals, for the suite-end log
+     */
+    public static synchronized String stats() {
+        int finished = deleted.get() + attached.get();
+        return String.format("Video: %d recorded (%d without a free slot), %d deleted (%d KB never kept), %d attached (%d trimmed), "
+                        + "%d dropped over budget, %d KB kept, context close avg %d ms with recording",
+                recorded.get(), skipped.get(), deleted.get(), deletedBytes.get() / 1024, attached.get(), trimmed.get(),
+                dropped.get(), keptBytes / 1024, finished == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(closeNanos.get() / finished));
+    }
+
+    private static Path localPath(Video video) {
+        if (BrowserServer.isEnabled()) {
+            return null;
+        }
+        try {
+            return video.path();
+        } catch (PlaywrightException e) {
+            return null;
+        }
+    }
+
+    // Stages the finished video next to the Allure results, checks the budget with its size and only then
+    // attaches it, so every attachment in the report has its file
+    private static void attach(Path raw) throws IOException {
+        Path results = Paths.get(ConfigManager.get("allure.results.directory", "allure-results"));
+        Files.createDirectories(results);
+        Path staged = Files.createTempFile(results.toAbsolutePath(), "video-", ".webm.tmp");
+        try {
+            Files.move(raw, staged, StandardCopyOption.REPLACE_EXISTING);
+            long size = Files.size(staged);
+            if (!reserve(size)) {
+                dropped.incrementAndGet();
+                logger.warn("Video budget of {} MB used up, no video for thread {}",
+                        ConfigManager.getInt("video.max.total.mb", 1024), Thread.currentThread().getName());
+                return;
+            }
+            String source = Allure.getLifecycle().prepareAttachment("Failure Video", "video/webm", ".webm");
+            Path target = results.resolve(source);
+            Files.move(staged, target, StandardCopyOption.REPLACE_EXISTING);
+            attached.incrementAndGet();
+            logger.info("Video saved to {} ({} KB) for thread {}", target, size / 1024, Thread.currentThread().getName());
+            if (ConfigManager.getInt("video.trim.seconds", 0) > 0) {
+                executor().execute(() -> trim(target, size));
+            }
+        } finally {
+            deleteRaw(staged);
+        }
+    }
+
+    // Runs in the background: replaces the attached video with its last seconds, keeping the full one on failure
+    private static void trim(Path target, long size) {
+        Path trimmedFile = null;
+        try {
+            trimmedFile = Files.createTempFile(target.toAbsolutePath().getParent(), "video-", ".webm.tmp");
+            if (!trim(target, trimmedFile, ConfigManager.getInt("video.trim.seconds", 0))) {
+                return;
+            }
+            long trimmedSize = Files.size(trimmedFile);
+            Files.move(trimmedFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            trimmed.incrementAndGet();
+            keep(trimmedSize - size);
+        } catch (IOException e) {
+            logger.warn("Failed to trim video {}, keeping the full video: {}", target, e.getMessage());
+        } finally {
+            deleteQuietly(trimmedFile);
+        }
+    }
+
+    // Keeps the last seconds without re-encoding; false if ffmpeg is missing or fails
+    private static boolean trim(Path raw, Path target, int seconds) {
+        String ffmpeg = ConfigManager.get("video.ffmpeg", "ffmpeg");
+        try {
+            Process process = new ProcessBuilder(ffmpeg, "-y", "-loglevel", "error", "-sseof", "-" + seconds,
+                    "-i", raw.toString(), "-c", "copy", "-f", "webm", target.toString())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return false;
+            }
+            return process.exitValue() == 0 && Files.size(target) > 0;
+        } catch (IOException e) {
+            logger.warn("ffmpeg not available ({}), keeping the full video", e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Deletes a recording that is not kept and counts its bytes
+    private static void deleteRaw(Path raw) {
+        try {
+            if (raw != null && Files.exists(raw)) {
+                deletedBytes.addAndGet(Files.size(raw));
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to size video {}: {}", raw, e.getMessage());
+        }
+        deleteQuietly(raw);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("Failed to delete video {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void deleteRemote(Video video) {
+        try {
+            video.delete();
+        } catch (RuntimeException e) {
+            logger.debug("Failed to delete remote video: {}", e.getMessage());
+        }
+    }
+
+    private static synchronized void keep(long delta) {
+        keptBytes += delta;
+    }
+
+    private static synchronized boolean reserve(long size) {
+        long budget = ConfigManager.getInt("video.max.total.mb", 1024) * 1024L * 1024L;
+        if (keptBytes + size > budget) {
+            return false;
+        }
+        keptBytes += size;
+        return true;
+    }
+
+    private static Path rawDirectory() {
+        return Paths.get(ConfigManager.get("video.dir", "target/videos"));
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "video-processor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+}
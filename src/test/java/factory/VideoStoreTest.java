@@ -0,0 +1,48 @@
+package factory;
+
+import com.microsoft.playwright.Video;
+import io.qameta.allure.Feature;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class VideoStoreTest {
+
+    // Local recording whose file is at the given path
+    private static Video video(Path file) {
+        return (Video) Proxy.newProxyInstance(VideoStoreTest.class.getClassLoader(), new Class<?>[]{Video.class},
+                (self, method, args) -> switch (method.getName()) {
+                    case "path" -> file;
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    default -> null;
+                });
+    }
+
+    private static Path recording() throws IOException {
+        Path file = Files.createTempFile("video-", ".webm");
+        Files.write(file, new byte[]{1, 2, 3});
+        return file;
+    }
+
+    @Test(description = "The recording of a passing test is deleted when its context closes", groups = {"unit"})
+    @Feature("Video")
+    public void testPassingVideoDeleted() throws IOException {
+        Path file = recording();
+        VideoStore.finish(video(file), false, 0);
+        Assert.assertFalse(Files.exists(file));
+    }
+
+    @Test(description = "A context that failed to close leaves no recording behind", groups = {"unit"})
+    @Feature("Video")
+    public void testAbandonedVideoDeleted() throws IOException {
+        Path file = recording();
+        VideoStore.abandon(video(file));
+        Assert.assertFalse(Files.exists(file));
+        VideoStore.abandon(null);
+    }
+}
@@ -0,0 +1,111 @@
+package factory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to Java 21 virtual threads while the project still compiles for Java 17.
+ * The API is looked up reflectively; on older runtimes callers get platform threads instead.
+ */
+public class VirtualThreads {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+    private static final Method ofVirtual = lookup(Thread.class, "ofVirtual");
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true if the running JVM supports virtual threads
+     */
+    public static boolean isSupported() {
+        return ofVirtual != null;
+    }
+
+    /**
+     * Creates a factory for virtual threads named {@code prefix + n}.
+     * @param prefix Thread name prefix
+     * @return Virtual thread factory, or null if the JVM does not support virtual threads
+     */
+    public static ThreadFactory factory(String prefix) {
+        if (ofVirtual == null) {
+            return null;
+        }
+        try {
+            // Resolve through the public Thread.Builder interface; the implementation class is not accessible
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = ofVirtual.invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Failed to create virtual thread factory: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Creates an executor that starts one virtual thread per task, or a cached platform pool on older JVMs.
+     * @param prefix Thread name prefix
+     * @return Executor to be shut down by the caller
+     */
+    public static ExecutorService newExecutor(String prefix) {
+        ThreadFactory factory = factory(prefix);
+        if (factory == null) {
+            return Executors.newCachedThreadPool();
+        }
+        try {
+            Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) perTask.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(factory);
+        }
+    }
+
+    /**
+     * Runs all tasks concurrently and returns their results in task order.
+     * Meant for fanning out independent I/O-bound checks inside one test.
+     * @param tasks Tasks to run
+     * @return Results in the same order as the tasks
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+        ExecutorService executor = newExecutor("test-fanout-");
+        try {
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for concurrent tasks", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Method lookup(Class<?> type, String name) {
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
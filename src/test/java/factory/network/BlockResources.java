@@ -0,0 +1,29 @@
+package factory.network;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Per-test (or per-class) override of the configured {@link ResourcePolicy}.
+ * Values are applied on top of the {@code block.*} configuration keys.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface BlockResources {
+    /** Turns blocking off entirely for the annotated test. */
+    boolean disabled() default false;
+
+    /** Resource types to block in addition to the configured ones (e.g. "stylesheet"). */
+    String[] blockTypes() default {};
+
+    /** Resource types to let through even if configured as blocked (e.g. "image"). */
+    String[] allowTypes() default {};
+
+    /** Third-party domains to block in addition to the configured ones. */
+    String[] blockDomains() default {};
+
+    /** Third-party domains to let through even if configured as blocked. */
+    String[] allowDomains() default {};
+}
@@ -0,0 +1,196 @@
+package factory.network;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact on-disk archive of recorded HTTP responses: bodies are appended to {@code bodies.bin}
+ * and every entry gets one line in {@code index.tsv} (key, status, offset, length, headers).
+ * The index is loaded into memory on open; large bodies are read back through memory mapping.
+ * Writes from several JVMs are serialised through {@code archive.lock}; on close the index is compacted
+ * to one line per key in a temporary file that atomically replaces {@code index.tsv}.
+ */
+public class NetworkArchive implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkArchive.class);
+    private static final String BODIES_FILE = "bodies.bin";
+    private static final String INDEX_FILE = "index.tsv";
+    private static final String LOCK_FILE = "archive.lock";
+
+    private final Path directory;
+    private final Path indexFile;
+    private final int mmapThreshold;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final FileChannel lockChannel;
+    private final FileChannel bodies;
+    private boolean written;
+
+    /**
+     * Opens (or creates) an archive directory.
+     * @param directory Archive directory
+     * @param mmapThreshold Bodies at least this large are read through a memory-mapped buffer
+     */
+    public NetworkArchive(Path directory, int mmapThreshold) throws IOException {
+        this.directory = directory;
+        this.mmapThreshold = mmapThreshold;
+        this.indexFile = directory.resolve(INDEX_FILE);
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock = lockChannel.lock();
+        try {
+            index.putAll(loadIndex(indexFile));
+        } finally {
+            lock.release();
+        }
+        bodies = FileChannel.open(directory.resolve(BODIES_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        logger.info("Opened network archive {} with {} entries", directory, index.size());
+    }
+
+    public Entry get(String key) {
+        return index.get(key);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Appends a response to the archive. Later entries for the same key replace earlier ones.
+     * The body offset is taken under the archive lock, so JVMs recording at once never overlap.
+     */
+    public synchronized void put(String key, int status, Map<String, String> headers, byte[] body) throws IOException {
+        FileLock lock = lockChannel.lock();
+        try {
+            long offset = bodies.size();
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            while (buffer.hasRemaining()) {
+                bodies.write(buffer, offset + buffer.position());
+            }
+            Entry entry = new Entry(key, status, offset, body.length, Map.copyOf(headers));
+            // Opened per write: a compaction by another JVM replaces the file
+            try (BufferedWriter writer = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(entry.toLine());
+                writer.newLine();
+            }
+            index.put(key, entry);
+            written = true;
+        } finally {
+            lock.release();
+        }
+    }
+
+    /**
+     * Reads an entry's body, mapping the region into memory for large bodies.
+     */
+    public byte[] body(Entry entry) throws IOException {
+        byte[] body = new byte[entry.length()];
+        if (entry.length() >= mmapThreshold) {
+            MappedByteBuffer mapped = bodies.map(FileChannel.MapMode.READ_ONLY, entry.offset(), entry.length());
+            mapped.get(body);
+            return body;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        while (buffer.hasRemaining()) {
+            if (bodies.read(buffer, entry.offset() + buffer.position()) < 0) {
+                throw new IOException("Archive body truncated for " + entry.key());
+            }
+        }
+        return body;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (written) {
+                compact();
+            }
+        } finally {
+            bodies.close();
+            lockChannel.close();
+        }
+        logger.info("Closed network archive {} with {} entries", directory, index.size());
+    }
+
+    // Rewrites the index with the latest entry per key, including entries other JVMs appended
+    private void compact() throws IOException {
+        FileLock lock = lockChannel.lock();
+        try {
+            Map<String, Entry> latest = loadIndex(indexFile);
+            Path temp = indexFile.resolveSibling(INDEX_FILE + "." + ProcessHandle.current().pid() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Entry entry : latest.values()) {
+                    writer.write(entry.toLine());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.release();
+        }
+    }
+
+    private static Map<String, Entry> loadIndex(Path indexFile) throws IOException {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        if (!Files.exists(indexFile)) {
+            return entries;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    Entry entry = Entry.fromLine(line);
+                    entries.put(entry.key(), entry);
+                } catch (RuntimeException e) {
+                    logger.warn("Skipping corrupt archive index line: {}", e.getMessage());
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Index entry pointing at a body region inside {@code bodies.bin}.
+     */
+    public record Entry(String key, int status, long offset, int length, Map<String, String> headers) {
+        String toLine() {
+            return String.join("\t", key, String.valueOf(status), String.valueOf(offset),
+                    String.valueOf(length), new JSONObject(headers).toString());
+        }
+
+        static Entry fromLine(String line) {
+            String[] parts = line.split("\t", 5);
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("expected 5 columns but got " + parts.length);
+            }
+            JSONObject json = new JSONObject(parts[4]);
+            Map<String, String> headers = new HashMap<>();
+            for (String name : json.keySet()) {
+                headers.put(name, json.getString(name));
+            }
+            return new Entry(parts[0], Integer.parseInt(parts[1]), Long.parseLong(parts[2]),
+                    Integer.parseInt(parts[3]), headers);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package factory.network;
+
+import com.microsoft.playwright.Request;
+import config.ConfigManager;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which requests go through the network archive and builds their archive keys.
+ * Keys are the method plus the URL with ignored query parameters removed (or the whole query,
+ * with {@code network.match.ignore.query=true}); request bodies are hashed into the key.
+ */
+public class NetworkMatchRules {
+    private final Pattern include;
+    private final Pattern exclude;
+    private final boolean ignoreQuery;
+    private final Set<String> ignoredParams;
+
+    public NetworkMatchRules(Pattern include, Pattern exclude, boolean ignoreQuery, Set<String> ignoredParams) {
+        this.include = include;
+        this.exclude = exclude;
+        this.ignoreQuery = ignoreQuery;
+        this.ignoredParams = ignoredParams;
+    }
+
+    /**
+     * Builds the rules from {@code network.match.*} configuration keys.
+     */
+    public static NetworkMatchRules fromConfig() {
+        String include = ConfigManager.get("network.match.include", "");
+        String exclude = ConfigManager.get("network.match.exclude", "");
+        Set<String> params = Arrays.stream(ConfigManager.get("network.match.ignore.params", "").split(","))
+                .map(String::trim)
+                .filter(p -> !p.isEmpty())
+                .collect(Collectors.toSet());
+        return new NetworkMatchRules(
+                include.isBlank() ? null : Pattern.compile(include),
+                exclude.isBlank() ? null : Pattern.compile(exclude),
+                ConfigManager.getBoolean("network.match.ignore.query", false),
+                params);
+    }
+
+    public boolean applies(Request request) {
+        String url = request.url();
+        if (!url.startsWith("http")) {
+            return false;
+        }
+        if (include != null && !include.matcher(url).find()) {
+            return false;
+        }
+        return exclude == null || !exclude.matcher(url).find();
+    }
+
+    public String key(Request request) {
+        String key = request.method() + " " + normalize(request.url());
+        byte[] postData = request.postDataBuffer();
+        if (postData != null && postData.length > 0) {
+            key += " #" + sha256(postData);
+        }
+        return key;
+    }
+
+    private String normalize(String url) {
+        try {
+            URI uri = new URI(url);
+            String query = uri.getRawQuery();
+            if (ignoreQuery || query == null) {
+                query = null;
+            } else if (!ignoredParams.isEmpty()) {
+                // Sort what is left so parameter order does not change the key
+                Set<String> kept = new TreeSet<>();
+                for (String pair : query.split("&")) {
+                    String name = pair.contains("=") ? pair.substring(0, pair.indexOf('=')) : pair;
+                    if (!ignoredParams.contains(name)) {
+                        kept.add(pair);
+                    }
+                }
+                query = kept.isEmpty() ? null : String.join("&", kept);
+            }
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            return uri.getScheme() + "://" + uri.getRawAuthority() + path + (query == null ? "" : "?" + query);
+        } catch (URISyntaxException e) {
+            return url;
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
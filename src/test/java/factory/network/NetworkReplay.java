@@ -0,0 +1,195 @@
+package factory.network;
+
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Installs the HAR-style record/replay route on browser contexts.
+ * {@code network.mode=record} fetches every matching request and stores the response in the shared
+ * {@link NetworkArchive}; {@code network.mode=replay} serves matching requests from the archive without
+ * touching the network and applies {@code network.miss} (fail, passthrough or record) to unknown ones.
+ */
+public class NetworkReplay {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkReplay.class);
+    // Headers that describe the wire encoding, which no longer applies to the decoded archived body
+    private static final Set<String> DROPPED_HEADERS = Set.of("content-encoding", "content-length", "transfer-encoding");
+
+    private static final AtomicInteger hits = new AtomicInteger();
+    private static final AtomicInteger misses = new AtomicInteger();
+    private static final AtomicInteger recorded = new AtomicInteger();
+    private static final AtomicLong bytesServed = new AtomicLong();
+    private static final AtomicLong bytesRecorded = new AtomicLong();
+
+    private static volatile NetworkArchive archive;
+    private static volatile NetworkMatchRules rules;
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    public enum MissPolicy { FAIL, PASSTHROUGH, RECORD }
+
+    private NetworkReplay() {
+    }
+
+    public static Mode mode() {
+        return Mode.valueOf(ConfigManager.get("network.mode", "off").toUpperCase());
+    }
+
+    /**
+     * Routes all requests of the context through the archive according to {@code network.mode}.
+     * Requests that do not match the rules fall through to other handlers or the network.
+     * @param context Browser context to install the route on
+     */
+    public static void install(BrowserContext context) {
+        Mode mode = mode();
+        if (mode == Mode.OFF) {
+            return;
+        }
+        NetworkArchive shared = archive();
+        NetworkMatchRules matchRules = rules;
+        MissPolicy missPolicy = MissPolicy.valueOf(ConfigManager.get("network.miss", "passthrough").toUpperCase());
+        context.route("**/*", route -> {
+            if (!matchRules.applies(route.request())) {
+                route.fallback();
+                return;
+            }
+            String key = matchRules.key(route.request());
+            if (mode == Mode.RECORD) {
+                record(shared, key, route);
+                return;
+            }
+            NetworkArchive.Entry entry = shared.get(key);
+            if (entry != null) {
+                serve(shared, entry, route);
+                return;
+            }
+            misses.incrementAndGet();
+            switch (missPolicy) {
+                case FAIL -> {
+                    logger.warn("Network archive miss, aborting: {}", key);
+                    route.abort("failed");
+                }
+                case PASSTHROUGH -> {
+                    logger.debug("Network archive miss, passing through: {}", key);
+                    route.fallback();
+                }
+                case RECORD -> record(shared, key, route);
+            }
+        });
+        logger.debug("Network {} route installed for thread {}", mode, Thread.currentThread().getName());
+    }
+
+    /**
+     * Closes the shared archive and logs hit/miss statistics.
+     */
+    public static synchronized void shutdown() {
+        if (archive == null) {
+            return;
+        }
+        try {
+            archive.close();
+        } catch (IOException e) {
+            logger.error("Failed to close network archive: {}", e.getMessage());
+        }
+        archive = null;
+        logger.info(stats());
+    }
+
+    /**
+     * Looks up the body size of a request in the archive without serving it.
+     * @param request Intercepted request
+     * @return Archived body size in bytes, or -1 if the archive is off or has no entry
+     */
+    public static long archivedSize(Request request) {
+        if (mode() == Mode.OFF) {
+            return -1;
+        }
+        NetworkArchive shared = archive();
+        NetworkArchive.Entry entry = rules.applies(request) ? shared.get(rules.key(request)) : null;
+        return entry == null ? -1 : entry.length();
+    }
+
+    public static String stats() {
+        return String.format("Network archive: %d hits (%d KB served), %d misses, %d recorded (%d KB)",
+                hits.get(), bytesServed.get() / 1024, misses.get(), recorded.get(), bytesRecorded.get() / 1024);
+    }
+
+    // A failed fetch is passed on to the page as a network error instead of leaving the route unhandled
+    private static void record(NetworkArchive shared, String key, Route route) {
+        APIResponse response;
+        try {
+            response = route.fetch();
+        } catch (PlaywrightException e) {
+            logger.warn("Failed to fetch {} for recording, aborting: {}", key, e.getMessage());
+            route.abort("failed");
+            return;
+        }
+        byte[] body = response.body();
+        try {
+            shared.put(key, response.status(), archivableHeaders(response.headers()), body);
+            recorded.incrementAndGet();
+            bytesRecorded.addAndGet(body.length);
+        } catch (IOException e) {
+            logger.error("Failed to record {}: {}", key, e.getMessage());
+        }
+        route.fulfill(new Route.FulfillOptions().setResponse(response));
+    }
+
+    private static void serve(NetworkArchive shared, NetworkArchive.Entry entry, Route route) {
+        try {
+            byte[] body = shared.body(entry);
+            route.fulfill(new Route.FulfillOptions()
+                    .setStatus(entry.status())
+                    .setHeaders(entry.headers())
+                    .setBodyBytes(body));
+            hits.incrementAndGet();
+            bytesServed.addAndGet(body.length);
+        } catch (IOException e) {
+            logger.error("Failed to read archived body for {}: {}", entry.key(), e.getMessage());
+            route.fallback();
+        }
+    }
+
+    private static Map<String, String> archivableHeaders(Map<String, String> headers) {
+        Map<String, String> kept = new HashMap<>();
+        headers.forEach((name, value) -> {
+            if (!DROPPED_HEADERS.contains(name.toLowerCase())) {
+                kept.put(name, value);
+            }
+        });
+        return kept;
+    }
+
+    private static NetworkArchive archive() {
+        NetworkArchive current = archive;
+        if (current != null) {
+            return current;
+        }
+        synchronized (NetworkReplay.class) {
+            if (archive == null) {
+                try {
+                    rules = NetworkMatchRules.fromConfig();
+                    archive = new NetworkArchive(
+                            Paths.get(ConfigManager.get("network.archive.dir", "network-archive")),
+                            ConfigManager.getInt("network.archive.mmap.threshold", 65536));
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to open network archive", e);
+                }
+            }
+            return archive;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package factory.network;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Blocks or stubs requests the assertions never need: whole resource types (images, fonts, media),
+ * URLs matching {@code block.url.pattern} and known third-party ad/analytics domains.
+ * Configured through {@code block.*} keys and overridable per test with {@link BlockResources}.
+ * The bytes saved are estimated by {@link ResourceSizes}.
+ */
+public class ResourcePolicy {
+    private static final Logger logger = LoggerFactory.getLogger(ResourcePolicy.class);
+    private static final AtomicInteger totalRequests = new AtomicInteger();
+    private static final AtomicLong totalBytes = new AtomicLong();
+    // Warm and recycled contexts are installed again for every test, but observed once
+    private static final Set<BrowserContext> observed = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private enum Reason { TYPE, URL, DOMAIN }
+
+    private final Set<String> types;
+    private final Set<String> domains;
+    private final Pattern urlPattern;
+    private final boolean stub;
+    private final String firstPartyHost;
+
+    private ResourcePolicy(Set<String> types, Set<String> domains, Pattern urlPattern, boolean stub, String firstPartyHost) {
+        this.types = types;
+        this.domains = domains;
+        this.urlPattern = urlPattern;
+        this.stub = stub;
+        this.firstPartyHost = firstPartyHost;
+    }
+
+    /**
+     * Builds the policy for the currently running test and installs it on the context.
+     * @param context Browser context of the test
+     * @return Counters of what was blocked, or null if blocking is disabled for this test
+     */
+    public static Stats install(BrowserContext context) {
+        if (!ConfigManager.getBoolean("block.enabled", true)) {
+            return null;
+        }
+        // What loads in one test sizes what blocking saves in the others
+        if (observed.add(context)) {
+            context.onResponse(ResourceSizes::observe);
+        }
+        ResourcePolicy policy = forCurrentTest();
+        if (policy == null) {
+            return null;
+        }
+        Stats stats = new Stats();
+        context.route("**/*", route -> policy.handle(route, stats));
+        return stats;
+    }
+
+    public static String stats() {
+        return String.format("Resource policy: %d requests blocked (%d KB known size)",
+                totalRequests.get(), totalBytes.get() / 1024);
+    }
+
+    private void handle(Route route, Stats stats) {
+        Request request = route.request();
+        Reason reason = blockReason(request);
+        if (reason == null) {
+            route.fallback();
+            return;
+        }
+        totalRequests.incrementAndGet();
+        // Blocked third-party domains are never contacted, not even to learn a size
+        stats.record(ResourceSizes.of(request, reason != Reason.DOMAIN));
+        if (stub) {
+            route.fulfill(new Route.FulfillOptions().setStatus(200).setBody(""));
+        } else {
+            route.abort("blockedbyclient");
+        }
+    }
+
+    private Reason blockReason(Request request) {
+        if (types.contains(request.resourceType())) {
+            return Reason.TYPE;
+        }
+        String url = request.url();
+        if (urlPattern != null && urlPattern.matcher(url).find()) {
+            return Reason.URL;
+        }
+        String host = host(url);
+        if (host == null || isFirstParty(host)) {
+            return null;
+        }
+        for (String domain : domains) {
+            if (host.equals(domain) || host.endsWith("." + domain)) {
+                return Reason.DOMAIN;
+            }
+        }
+        return null;
+    }
+
+    private boolean isFirstParty(String host) {
+        return firstPartyHost != null && (host.equals(firstPartyHost) || host.endsWith("." + firstPartyHost));
+    }
+
+    private static ResourcePolicy forCurrentTest() {
+        Set<String> types = csv(ConfigManager.get("block.resource.types", ""));
+        Set<String> domains = csv(ConfigManager.get("block.third.party.domains", ""));
+        BlockResources override = currentOverride();
+        if (override != null) {
+            if (override.disabled()) {
+                return null;
+            }
+            types.addAll(Arrays.asList(override.blockTypes()));
+            types.removeAll(Arrays.asList(override.allowTypes()));
+            domains.addAll(Arrays.asList(override.blockDomains()));
+            domains.removeAll(Arrays.asList(override.allowDomains()));
+        }
+        String pattern = ConfigManager.get("block.url.pattern", "");
+        return new ResourcePolicy(types, domains,
+                pattern.isBlank() ? null : Pattern.compile(pattern),
+                "stub".equalsIgnoreCase(ConfigManager.get("block.mode", "abort")),
+                host(ConfigManager.get("ui.url", "")));
+    }
+
+    // The method-level annotation wins over the class-level one
+    private static BlockResources currentOverride() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        if (result == null) {
+            return null;
+        }
+        Method method = result.getMethod().getConstructorOrMethod().getMethod();
+        BlockResources annotation = method == null ? null : method.getAnnotation(BlockResources.class);
+        Class<?> testClass = result.getMethod().getRealClass();
+        return annotation != null ? annotation : testClass.getAnnotation(BlockResources.class);
+    }
+
+    private static Set<String> csv(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? null : host.startsWith("www.") ? host.substring(4) : host;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Requests blocked within one test's context. Sizes looked up in the background are added when
+     * they arrive, so read the stats after {@link #awaitSizes(long)}.
+     */
+    public static class Stats {
+        private int requests;
+        private int knownSizeRequests;
+        private int pending;
+        private long bytes;
+
+        void record(CompletableFuture<Long> size) {
+            synchronized (this) {
+                requests++;
+                pending++;
+            }
+            size.thenAccept(this::sized);
+        }
+
+        private synchronized void sized(long size) {
+            pending--;
+            if (size >= 0) {
+                knownSizeRequests++;
+                bytes += size;
+                totalBytes.addAndGet(size);
+            }
+            notifyAll();
+        }
+
+        /**
+         * Waits until every blocked request's size is known or given up on.
+         * @param timeoutMs Longest wait in milliseconds
+         */
+        public synchronized void awaitSizes(long timeoutMs) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            try {
+                long remaining;
+                while (pending > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        public synchronized int getRequests() {
+            return requests;
+        }
+
+        public synchronized long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("%d requests blocked, %d bytes saved (size known for %d)", requests, bytes, knownSizeRequests);
+        }
+    }
+}
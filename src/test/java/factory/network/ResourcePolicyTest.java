@@ -0,0 +1,46 @@
+package factory.network;
+
+import io.qameta.allure.Feature;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class ResourcePolicyTest {
+
+    @Test(description = "Known sizes are added at once, unknown ones only count as blocked", groups = {"unit"})
+    @Feature("Resource Policy")
+    public void testKnownSizes() {
+        ResourcePolicy.Stats stats = new ResourcePolicy.Stats();
+        stats.record(CompletableFuture.completedFuture(1000L));
+        stats.record(CompletableFuture.completedFuture(-1L));
+        stats.awaitSizes(0);
+        Assert.assertEquals(stats.getRequests(), 2);
+        Assert.assertEquals(stats.getBytes(), 1000L);
+        Assert.assertEquals(stats.toString(), "2 requests blocked, 1000 bytes saved (size known for 1)");
+    }
+
+    @Test(description = "Sizes looked up in the background are waited for", groups = {"unit"})
+    @Feature("Resource Policy")
+    public void testAwaitSizes() {
+        ResourcePolicy.Stats stats = new ResourcePolicy.Stats();
+        CompletableFuture<Long> head = new CompletableFuture<>();
+        stats.record(head);
+        CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS).execute(() -> head.complete(2048L));
+        stats.awaitSizes(5000);
+        Assert.assertEquals(stats.getBytes(), 2048L);
+    }
+
+    @Test(description = "Waiting for sizes gives up after the timeout", groups = {"unit"})
+    @Feature("Resource Policy")
+    public void testAwaitSizesTimeout() {
+        ResourcePolicy.Stats stats = new ResourcePolicy.Stats();
+        stats.record(new CompletableFuture<>());
+        long start = System.nanoTime();
+        stats.awaitSizes(100);
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        Assert.assertEquals(stats.getRequests(), 1);
+        Assert.assertEquals(stats.getBytes(), 0L);
+    }
+}
@@ -0,0 +1,112 @@
+package factory.network;
+
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Response;
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transfer sizes of resources for the blocked-bytes statistics. A size comes from the network archive,
+ * from the {@code content-length} of a response any context has already received for the URL, or from a
+ * HEAD request sent in the background the first time a blocked URL has no known size
+ * ({@code block.size.probe}). Sizes are shared by all threads for the whole run; -1 means unknown.
+ */
+final class ResourceSizes {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceSizes.class);
+    private static final CompletableFuture<Long> UNKNOWN = CompletableFuture.completedFuture(-1L);
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(5);
+    private static final Map<String, CompletableFuture<Long>> sizes = new ConcurrentHashMap<>();
+    private static volatile HttpClient client;
+
+    private ResourceSizes() {
+    }
+
+    /**
+     * Remembers the size of a response a context received; installed as a response listener.
+     * @param response Received response
+     */
+    static void observe(Response response) {
+        long length = parse(response.headers().get("content-length"));
+        if (length >= 0) {
+            sizes.put(key(response.url()), CompletableFuture.completedFuture(length));
+        }
+    }
+
+    /**
+     * @param request Blocked request
+     * @param probe Whether an unknown size may be looked up with a HEAD request
+     * @return Future completed with the size in bytes, or -1 if it stays unknown
+     */
+    static CompletableFuture<Long> of(Request request, boolean probe) {
+        long archived = NetworkReplay.archivedSize(request);
+        if (archived >= 0) {
+            return CompletableFuture.completedFuture(archived);
+        }
+        String key = key(request.url());
+        CompletableFuture<Long> known = sizes.get(key);
+        if (known != null) {
+            return known;
+        }
+        if (!probe || !ConfigManager.getBoolean("block.size.probe", true) || !key.startsWith("http")) {
+            return UNKNOWN;
+        }
+        return sizes.computeIfAbsent(key, ResourceSizes::head);
+    }
+
+    private static CompletableFuture<Long> head(String url) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url))
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .header("Accept-Encoding", "gzip, deflate, br")
+                    .timeout(PROBE_TIMEOUT)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return UNKNOWN;
+        }
+        return client().sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() < 400
+                        ? response.headers().firstValueAsLong("content-length").orElse(-1L) : -1L)
+                .exceptionally(error -> {
+                    logger.debug("HEAD {} failed: {}", url, error.getMessage());
+                    return -1L;
+                });
+    }
+
+    private static HttpClient client() {
+        if (client == null) {
+            synchronized (ResourceSizes.class) {
+                if (client == null) {
+                    client = HttpClient.newBuilder()
+                            .followRedirects(HttpClient.Redirect.NORMAL)
+                            .connectTimeout(PROBE_TIMEOUT)
+                            .build();
+                }
+            }
+        }
+        return client;
+    }
+
+    private static long parse(String value) {
+        try {
+            return value == null ? -1 : Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String key(String url) {
+        int fragment = url.indexOf('#');
+        return fragment < 0 ? url : url.substring(0, fragment);
+    }
+}
@@ -0,0 +1,175 @@
+package ui.helpers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Latency of page object actions, tagged with page class, action, selector and browser.
+ * Each thread records into its own histograms without locking; the current test's histograms are
+ * folded into the thread's suite totals when the test ends, and all threads are merged at suite end.
+ * Disable with {@code metrics.actions.enabled=false}.
+ */
+public final class ActionMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(ActionMetrics.class);
+    private static final boolean enabled = ConfigManager.getBoolean("metrics.actions.enabled", true);
+    private static final Queue<Recorder> recorders = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<Recorder> recorder = ThreadLocal.withInitial(() -> {
+        Recorder created = new Recorder();
+        recorders.add(created);
+        return created;
+    });
+
+    private ActionMetrics() {
+    }
+
+    /**
+     * Runs and times an action.
+     * @param page Page object class name
+     * @param action Action name, e.g. click
+     * @param selector Selector or URL the action works on
+     * @param browser Browser engine
+     * @param body The action
+     * @return Result of the action
+     */
+    public static <T> T time(String page, String action, String selector, String browser, Supplier<T> body) {
+        Recorder current = recorder.get();
+        current.lastSelector = selector;
+        if (!enabled) {
+            return body.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return body.get();
+        } finally {
+            current.record(new Tag(page, action, selector, browser), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Runs and times an action without a result.
+     * @see #time(String, String, String, String, Supplier)
+     */
+    public static void time(String page, String action, String selector, String browser, Runnable body) {
+        time(page, action, selector, browser, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /** Starts a fresh per-test breakdown on the current thread. */
+    static void startTest() {
+        Recorder current = recorder.get();
+        current.test.clear();
+        current.lastSelector = null;
+    }
+
+    /**
+     * @return Selector of the current thread's most recent action, e.g. to highlight it on failure
+     */
+    static String lastSelector() {
+        return recorder.get().lastSelector;
+    }
+
+    /**
+     * Ends the current thread's test and folds its histograms into the suite totals.
+     * @return Per-action table of the test, or null if nothing was recorded
+     */
+    static String finishTest() {
+        Recorder current = recorder.get();
+        if (current.test.isEmpty()) {
+            return null;
+        }
+        List<Map<String, Object>> rows = rows(current.test);
+        current.test.forEach((tag, histogram) -> current.suite.computeIfAbsent(tag, t -> new LatencyHistogram()).merge(histogram));
+        current.test.clear();
+        StringBuilder table = new StringBuilder(String.format("%-10s %-14s %-8s %6s %10s %9s %9s %9s  %s%n",
+                "browser", "page", "action", "count", "total ms", "p50 ms", "p95 ms", "max ms", "selector"));
+        for (Map<String, Object> row : rows) {
+            table.append(String.format("%-10s %-14s %-8s %6d %10.1f %9.1f %9.1f %9.1f  %s%n",
+                    row.get("browser"), row.get("page"), row.get("action"), row.get("count"), row.get("totalMs"),
+                    row.get("p50Ms"), row.get("p95Ms"), row.get("maxMs"), row.get("selector")));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Merges every thread's totals and writes percentiles per tag to {@code metrics.actions.file}.
+     * Call once all tests have finished.
+     */
+    static void writeSummary() {
+        if (!enabled) {
+            return;
+        }
+        Map<Tag, LatencyHistogram> merged = new HashMap<>();
+        for (Recorder each : recorders) {
+            each.test.forEach((tag, histogram) -> merged.computeIfAbsent(tag, t -> new LatencyHistogram()).merge(histogram));
+            each.suite.forEach((tag, histogram) -> merged.computeIfAbsent(tag, t -> new LatencyHistogram()).merge(histogram));
+        }
+        if (merged.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(ConfigManager.get("metrics.actions.file", "target/action-latency.json"));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), rows(merged));
+            logger.info("Action latency summary for {} actions written to {}", merged.size(), file);
+        } catch (IOException e) {
+            logger.warn("Failed to write action latency summary {}: {}", file, e.getMessage());
+        }
+    }
+
+    // Slowest first by total time
+    private static List<Map<String, Object>> rows(Map<Tag, LatencyHistogram> histograms) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        histograms.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<Tag, LatencyHistogram> e) -> e.getValue().totalMillis()).reversed())
+                .forEach(e -> {
+                    LatencyHistogram histogram = e.getValue();
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("browser", e.getKey().browser());
+                    row.put("page", e.getKey().page());
+                    row.put("action", e.getKey().action());
+                    row.put("selector", e.getKey().selector());
+                    row.put("count", histogram.count());
+                    row.put("totalMs", histogram.totalMillis());
+                    row.put("p50Ms", histogram.percentileMillis(50));
+                    row.put("p90Ms", histogram.percentileMillis(90));
+                    row.put("p95Ms", histogram.percentileMillis(95));
+                    row.put("p99Ms", histogram.percentileMillis(99));
+                    row.put("maxMs", histogram.maxMillis());
+                    rows.add(row);
+                });
+        return rows;
+    }
+
+    private record Tag(String page, String action, String selector, String browser) {
+    }
+
+    // Written only by its own thread; read by others only after the suite has finished
+    private static final class Recorder {
+        private final Map<Tag, LatencyHistogram> test = new HashMap<>();
+        private final Map<Tag, LatencyHistogram> suite = new HashMap<>();
+        private String lastSelector;
+
+        void record(Tag tag, long nanos) {
+            test.computeIfAbsent(tag, t -> new LatencyHistogram()).record(nanos);
+        }
+    }
+}
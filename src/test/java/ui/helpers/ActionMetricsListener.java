@@ -0,0 +1,39 @@
+package ui.helpers;
+
+import io.qameta.allure.Allure;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+/**
+ * Attaches each test's action latency table to Allure and writes the suite percentile summary
+ * collected by {@link ActionMetrics}.
+ */
+public class ActionMetricsListener implements IInvokedMethodListener, ISuiteListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            ActionMetrics.startTest();
+        }
+    }
+
+    // Runs before the test result listeners, while the Allure test case is still open
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        String table = ActionMetrics.finishTest();
+        if (table != null) {
+            Allure.addAttachment("Action latency", "text/plain", table, ".txt");
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        ActionMetrics.writeSummary();
+    }
+}
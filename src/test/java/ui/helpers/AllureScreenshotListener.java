@@ -1,35 +1,35 @@
 package ui.helpers;
 
 import com.microsoft.playwright.Page;
-import factory.TestContext;
-import io.qameta.allure.Allure;
+import factory.LifecycleCoordinator;
+import factory.PlaywrightFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
-import java.io.ByteArrayInputStream;
-
 public class AllureScreenshotListener implements ITestListener {
     private static final Logger logger = LoggerFactory.getLogger(AllureScreenshotListener.class);
 
     private void captureScreenshot(ITestResult result) {
+        LifecycleCoordinator.onFailure(result, factory -> {
+            captureScreenshot(result, factory);
+            factory.saveTrace(result.getName());
+            factory.keepVideo();
+        });
+    }
+
+    private void captureScreenshot(ITestResult result, PlaywrightFactory factory) {
         logger.info("Attempting screenshot for test: {} on thread {}", result.getName(), Thread.currentThread().getName());
         try {
-            Page page = TestContext.getPage();
-            if (page == null) {
-                logger.warn("TestContext.getPage() returned null for test: {}", result.getName());
+            Page page = factory.getPage();
+            if (page == null || page.isClosed()) {
+                logger.warn("No open page to screenshot for test: {}", result.getName());
                 return;
             }
             logger.info("Page found for test: {}, URL: {}", result.getName(), page.url());
-            byte[] screenshot = page.screenshot(new Page.ScreenshotOptions().setFullPage(true));
-            Allure.addAttachment(
-                    "Failure Screenshot",
-                    "image/png",
-                    new ByteArrayInputStream(screenshot),
-                    ".png"
-            );
+            ScreenshotPipeline.capture(page, "Failure Screenshot");
             logger.info("Screenshot successfully attached for test: {}", result.getName());
         } catch (Exception e) {
             logger.error("Failed to capture or attach screenshot for test {}: {}", result.getName(), e.getMessage());
@@ -0,0 +1,50 @@
+package ui.helpers;
+
+import config.ConfigManager;
+import factory.AdmissionController;
+import factory.BrowserManager;
+import factory.BrowserReaper;
+import factory.BrowserServer;
+import factory.BrowserWarmPool;
+import factory.LifecycleCoordinator;
+import factory.TraceStore;
+import factory.VideoStore;
+import factory.network.NetworkReplay;
+import factory.network.ResourcePolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Owns suite-level browser teardown: contexts left behind by failed tests, the warm pool and the
+ * worker browsers are closed gracefully, then the reaper kills any process that survived.
+ */
+public class BrowserLifecycleListener implements ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserLifecycleListener.class);
+
+    @Override
+    public void onStart(ISuite suite) {
+        logger.info("Suite {} started, browsers will be reused per worker thread", suite.getName());
+        BrowserReaper.startIdleWatch(ConfigManager.getInt("reaper.idle.timeout", 0));
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        logger.info("Suite {} finished, shutting down worker browsers", suite.getName());
+        LifecycleCoordinator.closeAbandoned();
+        ScreenshotPipeline.flush();
+        BrowserWarmPool.shutdown();
+        BrowserManager.shutdown();
+        BrowserServer.shutdown();
+        NetworkReplay.shutdown();
+        logger.info(ResourcePolicy.stats());
+        logger.info(AdmissionController.stats());
+        logger.info(FormFiller.stats());
+        logger.info(TraceStore.stats());
+        logger.info(ScreenshotPipeline.stats());
+        VideoStore.flush();
+        logger.info(VideoStore.stats());
+        BrowserReaper.reap("suite end");
+    }
+}
@@ -0,0 +1,89 @@
+package ui.helpers;
+
+import config.ConfigManager;
+import factory.AdmissionController;
+import factory.BrowserWarmPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestNGMethod;
+import ui.tests.setup.BrowserMapper;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Works out which browsers the suite needs from the included groups and the DataProvider rows
+ * of its test methods, and starts pre-warming them in the background sized to the suite's thread-count and admission capacity.
+ * Leftover sessions are closed by {@link BrowserLifecycleListener}.
+ */
+public class BrowserPrewarmListener implements ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserPrewarmListener.class);
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (!ConfigManager.getBoolean("prewarm.enabled", true)) {
+            logger.info("Browser pre-warming disabled");
+            return;
+        }
+        Map<String, Integer> demand = browserDemand(suite);
+        // thread-count is only an upper bound; admission control decides how many browsers really run
+        int threadCount = Math.max(1, Math.min(suite.getXmlSuite().getThreadCount(),
+                demand.keySet().stream().mapToInt(AdmissionController::capacity).max().orElse(1)));
+        BrowserWarmPool.start(allocate(demand, threadCount), new BrowserWarmPool.WarmOptions(
+                ConfigManager.getBoolean("headless", true),
+                ConfigManager.getInt("viewport.width", 1920),
+                ConfigManager.getInt("viewport.height", 1080),
+                ConfigManager.getInt("prewarm.wait.timeout", 60000)));
+    }
+
+    // Counts test instances per Playwright engine among methods that will run on this shard
+    private Map<String, Integer> browserDemand(ISuite suite) {
+        Map<String, Integer> demand = new LinkedHashMap<>();
+        ShardPlan plan = ShardPlan.forSuite(suite);
+        for (ITestNGMethod method : suite.getAllMethods()) {
+            if (!isIncluded(method)) {
+                continue;
+            }
+            for (Object[] row : DataProviderRows.rows(method)) {
+                if (row.length == 0 || !(row[0] instanceof String browser) || plan != null && !plan.isAssigned(method, row)) {
+                    continue;
+                }
+                try {
+                    demand.merge(BrowserMapper.mapBrowser(browser), 1, Integer::sum);
+                } catch (IllegalArgumentException e) {
+                    logger.debug("First DataProvider column of {} is not a browser: {}", method.getQualifiedName(), browser);
+                }
+            }
+        }
+        logger.info("Browser demand for suite {}: {}", suite.getName(), demand);
+        return demand;
+    }
+
+    private boolean isIncluded(ITestNGMethod method) {
+        List<String> included = method.getXmlTest() == null ? List.of() : method.getXmlTest().getIncludedGroups();
+        return included.isEmpty() || Arrays.stream(method.getGroups()).anyMatch(included::contains);
+    }
+
+    // Shares thread-count sessions across engines round-robin, never more than an engine's demand
+    private Map<String, Integer> allocate(Map<String, Integer> demand, int threadCount) {
+        Map<String, Integer> allocation = new LinkedHashMap<>();
+        int remaining = threadCount;
+        boolean progress = true;
+        while (remaining > 0 && progress) {
+            progress = false;
+            for (Map.Entry<String, Integer> entry : demand.entrySet()) {
+                int current = allocation.getOrDefault(entry.getKey(), 0);
+                if (remaining > 0 && current < entry.getValue()) {
+                    allocation.put(entry.getKey(), current + 1);
+                    remaining--;
+                    progress = true;
+                }
+            }
+        }
+        return allocation;
+    }
+}
@@ -0,0 +1,65 @@
+package ui.helpers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestNGMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/** Resolves the rows a test method's static DataProvider will produce, before TestNG runs it. */
+public final class DataProviderRows {
+    private static final Logger logger = LoggerFactory.getLogger(DataProviderRows.class);
+
+    private DataProviderRows() {
+    }
+
+    /**
+     * Invokes the static, parameterless DataProvider of a test method.
+     * @param method TestNG method
+     * @return Rows of the DataProvider, or an empty list if the method has none or it cannot be resolved
+     */
+    public static List<Object[]> rows(ITestNGMethod method) {
+        Method testMethod = method.getConstructorOrMethod().getMethod();
+        Test test = testMethod == null ? null : testMethod.getAnnotation(Test.class);
+        if (test == null || test.dataProvider().isEmpty()) {
+            return Collections.emptyList();
+        }
+        Class<?> providerClass = test.dataProviderClass() == Object.class ? method.getRealClass() : test.dataProviderClass();
+        for (Method candidate : providerClass.getMethods()) {
+            DataProvider dataProvider = candidate.getAnnotation(DataProvider.class);
+            if (dataProvider == null) {
+                continue;
+            }
+            String name = dataProvider.name().isEmpty() ? candidate.getName() : dataProvider.name();
+            if (!name.equals(test.dataProvider())) {
+                continue;
+            }
+            if (!Modifier.isStatic(candidate.getModifiers()) || candidate.getParameterCount() > 0) {
+                logger.debug("DataProvider {} of {} is not static and parameterless, skipping", name, method.getQualifiedName());
+                return Collections.emptyList();
+            }
+            try {
+                Object data = candidate.invoke(null);
+                if (data instanceof Object[][] matrix) {
+                    return Arrays.asList(matrix);
+                }
+                if (data instanceof Iterable<?> iterable) {
+                    List<Object[]> rows = new ArrayList<>();
+                    iterable.forEach(row -> rows.add((Object[]) row));
+                    return rows;
+                }
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                logger.warn("Failed to resolve DataProvider {} of {}: {}", name, method.getQualifiedName(), e.getMessage());
+            }
+            return Collections.emptyList();
+        }
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,118 @@
+package ui.helpers;
+
+import com.microsoft.playwright.Page;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Texts, values and visibility of a set of named elements, read in a single page evaluation.
+ * The evaluation polls inside the page until the required elements are visible, so a batch read
+ * costs one driver round trip instead of a wait, a locator and a read per element.
+ * Supports CSS and XPath selectors ({@code css=}, {@code xpath=} or a leading {@code //}).
+ */
+public final class DomSnapshot {
+    private static final String SCRIPT = "async ({ selectors, required, timeout }) => {\n" + PageScripts.DOM_HELPERS + """
+              const missing = await waitUntil(() => required.filter(name => !visible(find(selectors[name]))), timeout);
+              const elements = {};
+              for (const [name, s] of Object.entries(selectors)) {
+                const el = find(s);
+                elements[name] = {
+                  present: !!el,
+                  visible: visible(el),
+                  text: el ? el.textContent : null,
+                  value: el ? ('value' in el ? String(el.value) : el.getAttribute('value')) : null
+                };
+              }
+              return { missing, elements };
+            }
+            """;
+
+    private final Map<String, Element> elements;
+
+    private DomSnapshot(Map<String, Element> elements) {
+        this.elements = Collections.unmodifiableMap(elements);
+    }
+
+    /**
+     * Reads the named elements after waiting until the required ones are visible.
+     * @param page Page to read
+     * @param selectors Selectors by name, in the order they should be read
+     * @param required Names that must be visible before the read
+     * @param timeout Wait timeout in milliseconds
+     * @return Snapshot and the required names that were still not visible at the deadline
+     */
+    static Result read(Page page, Map<String, String> selectors, Collection<String> required, double timeout) {
+        Map<String, Map<String, Object>> compiled = new LinkedHashMap<>();
+        selectors.forEach((name, selector) -> compiled.put(name, PageScripts.compile(selector)));
+        Map<String, Object> arg = new LinkedHashMap<>();
+        arg.put("selectors", compiled);
+        arg.put("required", new ArrayList<>(required));
+        arg.put("timeout", timeout);
+
+        Map<?, ?> raw = (Map<?, ?>) page.evaluate(SCRIPT, arg);
+        Map<String, Element> elements = new LinkedHashMap<>();
+        Map<?, ?> rawElements = (Map<?, ?>) raw.get("elements");
+        for (String name : selectors.keySet()) {
+            Map<?, ?> element = (Map<?, ?>) rawElements.get(name);
+            elements.put(name, new Element(Boolean.TRUE.equals(element.get("present")),
+                    Boolean.TRUE.equals(element.get("visible")),
+                    (String) element.get("text"), (String) element.get("value")));
+        }
+        List<String> missing = new ArrayList<>();
+        ((List<?>) raw.get("missing")).forEach(name -> missing.add(String.valueOf(name)));
+        return new Result(new DomSnapshot(elements), missing);
+    }
+
+    /**
+     * @param name Name the selector was registered under
+     * @return Element state
+     */
+    public Element element(String name) {
+        Element element = elements.get(name);
+        if (element == null) {
+            throw new IllegalArgumentException("No element named '" + name + "' in snapshot " + elements.keySet());
+        }
+        return element;
+    }
+
+    /**
+     * @param name Name the selector was registered under
+     * @return Trimmed text content, or the value for form fields, like {@code BasePage.getText}
+     */
+    public String text(String name) {
+        return element(name).displayText();
+    }
+
+    /**
+     * @param name Name the selector was registered under
+     * @return true if the element was visible at read time
+     */
+    public boolean isVisible(String name) {
+        return element(name).visible();
+    }
+
+    /**
+     * State of one element at read time.
+     * @param present Element exists in the DOM
+     * @param visible Element has a non-empty box and is not {@code visibility: hidden}
+     * @param text Raw text content, null if absent
+     * @param value Form value or value attribute, null if absent
+     */
+    public record Element(boolean present, boolean visible, String text, String value) {
+        /** @return Trimmed text, falling back to the trimmed value when the text is blank */
+        public String displayText() {
+            if (text != null && !text.trim().isEmpty()) {
+                return text.trim();
+            }
+            return value != null ? value.trim() : "";
+        }
+    }
+
+    record Result(DomSnapshot snapshot, List<String> missing) {
+    }
+}
@@ -0,0 +1,252 @@
+package ui.helpers;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestNGMethod;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Historical test durations keyed by method and DataProvider parameters, kept in a small TSV file
+ * ({@code duration.history.file}, one {@code key<TAB>millis<TAB>runs} line per test instance).
+ * New measurements of passing runs are blended into the stored value as an exponential moving average.
+ * Keys must be the same in every JVM, so parameters without a value-based {@code toString()} are keyed by
+ * their declared name, type and a fingerprint of their fields instead of their identity hash.
+ */
+public final class DurationHistory {
+    private static final Logger logger = LoggerFactory.getLogger(DurationHistory.class);
+    private static final Map<String, Entry> history = new ConcurrentHashMap<>();
+    private static final Map<String, Long> measured = new ConcurrentHashMap<>();
+    // Field-based and sorted, so equal parameter objects give the same fingerprint in every JVM
+    private static final ObjectMapper fingerprints = JsonMapper.builder()
+            .visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+            .build();
+    private static volatile boolean loaded;
+
+    private DurationHistory() {
+    }
+
+    /**
+     * Builds the history key of one test instance.
+     * @param method TestNG method
+     * @param parameters DataProvider row, or an empty array
+     * @return Key such as {@code ui.tests.ElementsTest.testGoToElementsPage[safari]}
+     */
+    public static String key(ITestNGMethod method, Object[] parameters) {
+        if (parameters == null || parameters.length == 0) {
+            return method.getQualifiedName();
+        }
+        Method testMethod = method.getConstructorOrMethod().getMethod();
+        Parameter[] declared = testMethod == null ? new Parameter[0] : testMethod.getParameters();
+        List<String> values = new ArrayList<>(parameters.length);
+        for (int i = 0; i < parameters.length; i++) {
+            String name = i < declared.length ? declared[i].getName() : "arg" + i;
+            values.add(stableValue(parameters[i], name).replaceAll("[\\t\\r\\n]", " "));
+        }
+        return method.getQualifiedName() + "[" + String.join(",", values) + "]";
+    }
+
+    /**
+     * Renders a parameter the same way in every JVM. Strings, numbers, enums and types with their own
+     * {@code toString()} (records, Lombok models) keep that text; other objects become
+     * {@code name:Type#fingerprint}, the fingerprint being a hash of their fields.
+     * @param value Parameter value
+     * @param name Declared parameter name
+     * @return Stable text for the key
+     */
+    static String stableValue(Object value, String name) {
+        if (value == null || value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum<?> || overridesToString(value.getClass())) {
+            return String.valueOf(value);
+        }
+        String type = value.getClass().getSimpleName();
+        try {
+            return name + ":" + type + "#" + fingerprint(fingerprints.writeValueAsString(value));
+        } catch (JsonProcessingException | RuntimeException e) {
+            return name + ":" + type;
+        }
+    }
+
+    /**
+     * Estimates a test instance's duration. Unknown instances fall back to the average of the same
+     * method's other rows, then to {@code duration.default.api} or {@code duration.default.ui}.
+     * @param method TestNG method
+     * @param parameters DataProvider row, or an empty array
+     * @return Expected duration in milliseconds
+     */
+    public static long estimate(ITestNGMethod method, Object[] parameters) {
+        load();
+        Entry entry = history.get(key(method, parameters));
+        if (entry != null) {
+            return entry.millis();
+        }
+        String prefix = method.getQualifiedName();
+        List<Long> siblings = history.entrySet().stream()
+                .filter(e -> e.getKey().equals(prefix) || e.getKey().startsWith(prefix + "["))
+                .map(e -> e.getValue().millis())
+                .collect(Collectors.toList());
+        if (!siblings.isEmpty()) {
+            return (long) siblings.stream().mapToLong(Long::longValue).average().orElse(0);
+        }
+        boolean api = Arrays.asList(method.getGroups()).contains("api");
+        return api ? ConfigManager.getInt("duration.default.api", 1000) : ConfigManager.getInt("duration.default.ui", 15000);
+    }
+
+    /**
+     * Records a passed test instance for the end-of-run update. Failures are not recorded, since a test
+     * that fails early or times out says little about how long it normally takes.
+     * @param key Key from {@link #key(ITestNGMethod, Object[])}
+     * @param millis Measured duration
+     */
+    public static void record(String key, long millis) {
+        measured.put(key, millis);
+    }
+
+    /**
+     * Merges this run's measurements into the history file. The file is re-read under a lock, so
+     * concurrent runs on one machine only add to each other's data.
+     */
+    public static synchronized void save() {
+        if (measured.isEmpty()) {
+            return;
+        }
+        merge(file(), measured);
+        measured.clear();
+    }
+
+    /**
+     * Writes this run's raw measurements to a file instead of the history, e.g. for a shard whose
+     * results are folded into the shared history by {@link ShardResultsMerger}.
+     * @param target File to write {@code key<TAB>millis} lines to
+     */
+    public static synchronized void export(Path target) {
+        List<String> lines = new ArrayList<>();
+        new TreeMap<>(measured).forEach((key, millis) -> lines.add(key + "\t" + millis));
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            Files.write(target, lines, StandardCharsets.UTF_8);
+            logger.info("{} duration measurements exported to {}", lines.size(), target);
+            measured.clear();
+        } catch (IOException e) {
+            logger.warn("Failed to export duration measurements to {}: {}", target, e.getMessage());
+        }
+    }
+
+    /**
+     * Blends measurements into a history file as an exponential moving average.
+     * @param file History file
+     * @param measurements Durations in milliseconds by key
+     */
+    public static void merge(Path file, Map<String, Long> measurements) {
+        double alpha = ConfigManager.getDouble("duration.history.alpha", 0.3);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    Map<String, Entry> merged = new TreeMap<>(read(file));
+                    measurements.forEach((key, millis) -> merged.merge(key, new Entry(millis, 1),
+                            (old, now) -> new Entry(Math.round(alpha * now.millis() + (1 - alpha) * old.millis()), old.runs() + 1)));
+                    List<String> lines = new ArrayList<>(merged.size());
+                    merged.forEach((key, entry) -> lines.add(key + "\t" + entry.millis() + "\t" + entry.runs()));
+                    Path temp = file.resolveSibling(file.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+                    Files.write(temp, lines, StandardCharsets.UTF_8);
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    history.putAll(merged);
+                    logger.info("Duration history updated with {} measurements ({} entries) in {}", measurements.size(), merged.size(), file);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to update duration history {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void load() {
+        if (loaded) {
+            return;
+        }
+        synchronized (DurationHistory.class) {
+            if (!loaded) {
+                history.putAll(read(file()));
+                loaded = true;
+                logger.debug("Loaded {} duration history entries", history.size());
+            }
+        }
+    }
+
+    private static Map<String, Entry> read(Path file) {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] parts = line.split("\t");
+                if (parts.length == 3) {
+                    entries.put(parts[0], new Entry(Long.parseLong(parts[1]), Integer.parseInt(parts[2])));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.warn("Ignoring unreadable duration history {}: {}", file, e.getMessage());
+        }
+        return entries;
+    }
+
+    private static boolean overridesToString(Class<?> type) {
+        try {
+            return type.getMethod("toString").getDeclaringClass() != Object.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static String fingerprint(String json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path file() {
+        return Paths.get(ConfigManager.get("duration.history.file", ".test-history/durations.tsv"));
+    }
+
+    private record Entry(long millis, int runs) {
+    }
+}
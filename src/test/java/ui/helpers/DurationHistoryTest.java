@@ -0,0 +1,70 @@
+package ui.helpers;
+
+import io.qameta.allure.Feature;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class DurationHistoryTest {
+
+    @Test(description = "Measurements are blended into the history as an EWMA and new keys are added", groups = {"unit"})
+    @Feature("Duration History")
+    public void testMergeBlendsMeasurements() throws IOException {
+        Path file = Files.createTempDirectory("duration-history").resolve("durations.tsv");
+        Files.write(file, List.of("a.Test.slow\t1000\t3", "a.Test.untouched\t500\t1"), StandardCharsets.UTF_8);
+
+        DurationHistory.merge(file, Map.of("a.Test.slow", 2000L, "a.Test.fresh", 700L));
+
+        Assert.assertEquals(Files.readAllLines(file, StandardCharsets.UTF_8), List.of(
+                "a.Test.fresh\t700\t1",
+                "a.Test.slow\t1300\t4",
+                "a.Test.untouched\t500\t1"));
+        Assert.assertTrue(Files.exists(file.resolveSibling("durations.tsv.lock")), "Merge runs under the lock file");
+    }
+
+    @Test(description = "Merging the same measurements gives the same file", groups = {"unit"})
+    @Feature("Duration History")
+    public void testMergeIsDeterministic() throws IOException {
+        Path first = Files.createTempDirectory("duration-history").resolve("durations.tsv");
+        Path second = Files.createTempDirectory("duration-history").resolve("durations.tsv");
+        Map<String, Long> measurements = Map.of("b.Test.one[chrome]", 1200L, "b.Test.one[firefox]", 1500L, "b.Test.two", 90L);
+
+        DurationHistory.merge(first, measurements);
+        DurationHistory.merge(second, measurements);
+
+        Assert.assertEquals(Files.readAllLines(first), Files.readAllLines(second));
+    }
+
+    @Test(description = "Parameters without their own toString are keyed by name, type and field fingerprint", groups = {"unit"})
+    @Feature("Duration History")
+    public void testStableValues() {
+        Assert.assertEquals(DurationHistory.stableValue("chrome", "browser"), "chrome");
+        Assert.assertEquals(DurationHistory.stableValue(42, "count"), "42");
+        Assert.assertEquals(DurationHistory.stableValue(new Row("a", 1), "row"), "Row[name=a, size=1]");
+
+        String key = DurationHistory.stableValue(new Model("a@a.com", 30), "user");
+        Assert.assertTrue(key.startsWith("user:Model#"), key);
+        Assert.assertFalse(key.contains("@"), "No identity hash: " + key);
+        Assert.assertEquals(DurationHistory.stableValue(new Model("a@a.com", 30), "user"), key, "Equal fields give equal keys");
+        Assert.assertNotEquals(DurationHistory.stableValue(new Model("b@b.com", 30), "user"), key, "Other fields give other keys");
+    }
+
+    private record Row(String name, int size) {
+    }
+
+    private static final class Model {
+        private final String email;
+        private final int age;
+
+        private Model(String email, int age) {
+            this.email = email;
+            this.age = age;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ui.helpers;
+
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Orders test methods, and the rows of each DataProvider, longest-processing-time first using
+ * {@link DurationHistory}, so slow instances start early instead of stretching the end of the run.
+ * With {@code -Dshard=i/n} instances assigned to other shards by {@link ShardPlan} are dropped first.
+ * Durations of passed tests are written back to the history when the suite finishes.
+ */
+public class DurationOrderListener implements IMethodInterceptor, IDataProviderInterceptor, ITestListener, ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(DurationOrderListener.class);
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ShardPlan plan = ShardPlan.forSuite(context.getSuite());
+        if (plan != null) {
+            methods = methods.stream().filter(instance -> plan.hasInstances(instance.getMethod())).collect(Collectors.toList());
+        }
+        if (!ConfigManager.getBoolean("duration.ordering", true)) {
+            return methods;
+        }
+        Map<IMethodInstance, Long> estimates = new IdentityHashMap<>();
+        methods.forEach(instance -> estimates.put(instance, estimate(instance.getMethod())));
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        ordered.sort(Comparator.comparingLong(estimates::get).reversed());
+        logger.info("Test {} ordered longest-first: {}", context.getName(), ordered.stream()
+                .map(instance -> instance.getMethod().getMethodName() + "~" + estimates.get(instance) + "ms")
+                .collect(Collectors.joining(", ")));
+        return ordered;
+    }
+
+    @Override
+    public Iterator<Object[]> intercept(Iterator<Object[]> original, IDataProviderMethod dataProviderMethod,
+                                        ITestNGMethod method, ITestContext context) {
+        ShardPlan plan = ShardPlan.forSuite(context.getSuite());
+        if (plan == null && !ConfigManager.getBoolean("duration.ordering", true)) {
+            return original;
+        }
+        List<Object[]> rows = new ArrayList<>();
+        original.forEachRemaining(row -> {
+            if (plan == null || plan.isAssigned(method, row)) {
+                rows.add(row);
+            }
+        });
+        if (!ConfigManager.getBoolean("duration.ordering", true)) {
+            return rows.iterator();
+        }
+        rows.sort(Comparator.comparingLong((Object[] row) -> DurationHistory.estimate(method, row)).reversed());
+        return rows.iterator();
+    }
+
+    // Only passing runs say how long a test normally takes
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    // Shards must all plan from the same history, so they hand their measurements to the merge step
+    @Override
+    public void onFinish(ISuite suite) {
+        ShardPlan plan = ShardPlan.forSuite(suite);
+        if (plan != null) {
+            DurationHistory.export(plan.measurementsFile());
+        } else {
+            DurationHistory.save();
+        }
+    }
+
+    // A DataProvider method costs the sum of its rows
+    private static long estimate(ITestNGMethod method) {
+        List<Object[]> rows = DataProviderRows.rows(method);
+        if (rows.isEmpty()) {
+            return DurationHistory.estimate(method, new Object[0]);
+        }
+        return rows.stream().mapToLong(row -> DurationHistory.estimate(method, row)).sum();
+    }
+
+    private static void record(ITestResult result) {
+        DurationHistory.record(DurationHistory.key(result.getMethod(), result.getParameters()),
+                result.getEndMillis() - result.getStartMillis());
+    }
+}
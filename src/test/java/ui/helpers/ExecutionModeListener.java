@@ -0,0 +1,80 @@
+package ui.helpers;
+
+import config.ConfigManager;
+import factory.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IExecutorServiceFactory;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.internal.IConfiguration;
+import org.testng.xml.XmlTest;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * With {@code execution.mode=virtual}, runs the TestNG tests listed in {@code execution.virtual.tests}
+ * (the API tests by default) on virtual threads with {@code execution.virtual.threads} workers.
+ * Other tests keep their platform thread pool. Requires a Java 21+ runtime; older JVMs log a
+ * warning and run as usual.
+ */
+public class ExecutionModeListener implements ISuiteListener {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionModeListener.class);
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (!"virtual".equalsIgnoreCase(ConfigManager.get("execution.mode", "platform"))) {
+            return;
+        }
+        if (!VirtualThreads.isSupported()) {
+            logger.warn("execution.mode=virtual needs Java 21+, running on platform threads (Java {})",
+                    System.getProperty("java.version"));
+            return;
+        }
+        List<String> virtualTests = Arrays.asList(ConfigManager.get("execution.virtual.tests", "APITests").split("\\s*,\\s*"));
+        int threads = ConfigManager.getInt("execution.virtual.threads", 256);
+        for (XmlTest test : suite.getXmlSuite().getTests()) {
+            if (virtualTests.contains(test.getName())) {
+                test.setThreadCount(threads);
+            }
+        }
+        try {
+            // TestNG only exposes the executor factory on its own configuration object
+            Field field = suite.getClass().getDeclaredField("configuration");
+            field.setAccessible(true);
+            IConfiguration configuration = (IConfiguration) field.get(suite);
+            configuration.setExecutorServiceFactory(new VirtualExecutorFactory(virtualTests));
+            logger.info("Running tests {} on up to {} virtual threads", virtualTests, threads);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Cannot install virtual thread executor, running on platform threads: {}", e.getMessage());
+        }
+    }
+
+    private static final class VirtualExecutorFactory implements IExecutorServiceFactory {
+        private final List<String> virtualTests;
+
+        private VirtualExecutorFactory(List<String> virtualTests) {
+            this.virtualTests = virtualTests;
+        }
+
+        @Override
+        public ExecutorService create(int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit unit,
+                                      BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+            // TestNG names its thread factory after the XmlTest, a throwaway thread reveals which one this is
+            String testName = threadFactory.newThread(() -> {
+            }).getName();
+            ThreadFactory virtual = virtualTests.stream().anyMatch(testName::contains)
+                    ? VirtualThreads.factory("TestNG-virtual-")
+                    : null;
+            return new ThreadPoolExecutor(corePoolSize, maxPoolSize, keepAliveTime, unit, workQueue,
+                    virtual != null ? virtual : threadFactory);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package ui.helpers;
+
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills a form in as few driver calls as possible. Consecutive fields are set in one page evaluation
+ * through the native value setter followed by bubbling {@code input} and {@code change} events, which
+ * is what React-controlled inputs listen to. Fields that need real keyboard input, and fields the
+ * batch could not set, are filled one by one. {@code form.fill.mode=field} fills everything one by one.
+ */
+public class FormFiller {
+    private static final Logger logger = LoggerFactory.getLogger(FormFiller.class);
+    // waitForSelector, clear and fill/pressSequentially
+    private static final int FIELD_RPCS = 3;
+    private static final String SCRIPT = "async ({ fields, timeout }) => {\n" + PageScripts.DOM_HELPERS + """
+              await waitUntil(() => fields.filter(f => !visible(find(f))), timeout);
+              const skipped = ['checkbox', 'radio', 'file', 'button', 'submit', 'reset', 'image'];
+              return fields.map(f => {
+                const el = find(f);
+                if (!visible(el)) return 'missing';
+                const proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype
+                  : el instanceof HTMLSelectElement ? HTMLSelectElement.prototype
+                  : el instanceof HTMLInputElement && !skipped.includes(el.type) ? HTMLInputElement.prototype
+                  : null;
+                if (!proto) return 'unsupported';
+                if (el.disabled || el.readOnly) return 'readonly';
+                el.focus();
+                Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, f.value);
+                el.dispatchEvent(new Event('input', { bubbles: true }));
+                el.dispatchEvent(new Event('change', { bubbles: true }));
+                el.blur();
+                return el.value === f.value ? 'filled' : 'rejected';
+              });
+            }
+            """;
+
+    private static final AtomicLong forms = new AtomicLong();
+    private static final AtomicLong fieldsFilled = new AtomicLong();
+    private static final AtomicLong rpcs = new AtomicLong();
+    private static final AtomicLong fallbacks = new AtomicLong();
+
+    private final Page page;
+    private final WaitHelper waitHelper;
+
+    public FormFiller(Page page, WaitHelper waitHelper) {
+        this.page = page;
+        this.waitHelper = waitHelper;
+    }
+
+    /**
+     * Fills the fields in order.
+     * @param fields Values by CSS or XPath selector, in fill order
+     * @param keyboardFields Selectors that must be typed key by key
+     * @return Driver calls used
+     */
+    public Report fill(Map<String, String> fields, Set<String> keyboardFields) {
+        boolean batch = !"field".equalsIgnoreCase(ConfigManager.get("form.fill.mode", "batch"));
+        int calls = 0;
+        int fallback = 0;
+        Map<String, String> run = new LinkedHashMap<>();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (batch && !keyboardFields.contains(field.getKey())) {
+                run.put(field.getKey(), field.getValue());
+                continue;
+            }
+            if (!run.isEmpty()) {
+                int failed = fillBatch(run);
+                calls += 1 + failed * FIELD_RPCS;
+                fallback += failed;
+                run.clear();
+            }
+            fillField(field.getKey(), field.getValue(), keyboardFields.contains(field.getKey()));
+            calls += FIELD_RPCS;
+        }
+        if (!run.isEmpty()) {
+            int failed = fillBatch(run);
+            calls += 1 + failed * FIELD_RPCS;
+            fallback += failed;
+        }
+        Report report = new Report(batch ? "batch" : "field", fields.size(), calls, fallback);
+        forms.incrementAndGet();
+        fieldsFilled.addAndGet(fields.size());
+        rpcs.addAndGet(calls);
+        fallbacks.addAndGet(fallback);
+        logger.debug("Filled form: {} on thread {}", report, Thread.currentThread().getName());
+        return report;
+    }
+
+    /**
+     * @return Form fill totals of this JVM, for the suite-end log
+     */
+    public static String stats() {
+        long fields = fieldsFilled.get();
+        return String.format("Form fill: %d forms, %d fields in %d driver calls (%d one by one), %d per-field fallbacks",
+                forms.get(), fields, rpcs.get(), fields * FIELD_RPCS, fallbacks.get());
+    }
+
+    // Returns how many fields had to be filled one by one afterwards
+    private int fillBatch(Map<String, String> run) {
+        List<Map<String, Object>> args = new ArrayList<>();
+        run.forEach((selector, value) -> {
+            Map<String, Object> field = new LinkedHashMap<>(PageScripts.compile(selector));
+            field.put("value", value);
+            args.add(field);
+        });
+        Map<String, Object> arg = new LinkedHashMap<>();
+        arg.put("fields", args);
+        arg.put("timeout", ConfigManager.getInt("timeout.element", 10000));
+        List<?> results = (List<?>) page.evaluate(SCRIPT, arg);
+
+        int failed = 0;
+        int i = 0;
+        for (Map.Entry<String, String> field : run.entrySet()) {
+            Object result = results.get(i++);
+            if (!"filled".equals(result)) {
+                logger.debug("Batch fill {} for {}, filling it by itself on thread {}", result, field.getKey(), Thread.currentThread().getName());
+                fillField(field.getKey(), field.getValue(), false);
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    private void fillField(String selector, String value, boolean keyboard) {
+        Locator element = waitHelper.waitForVisible(selector);
+        element.clear();
+        if (keyboard) {
+            element.pressSequentially(value);
+        } else {
+            element.fill(value);
+        }
+    }
+
+    /**
+     * Outcome of one form fill.
+     * @param mode batch or field
+     * @param fields Fields filled
+     * @param rpcs Driver calls used
+     * @param fallbacks Batch fields that had to be filled one by one
+     */
+    public record Report(String mode, int fields, int rpcs, int fallbacks) {
+        @Override
+        public String toString() {
+            return String.format("%d fields in %s mode, %d driver calls (%d fallbacks)", fields, mode, rpcs, fallbacks);
+        }
+    }
+}
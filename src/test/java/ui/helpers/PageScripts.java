@@ -0,0 +1,74 @@
+package ui.helpers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/** Shared pieces of the in-page scripts used for batched reads and fills. */
+final class PageScripts {
+    private static final Pattern ENGINE_PREFIX = Pattern.compile("^[a-zA-Z_-]+=.*", Pattern.DOTALL);
+
+    /** Defines {@code find(compiledSelector)} and {@code visible(element)}; prepend to a function body. */
+    static final String DOM_HELPERS = """
+              const find = s => s.xpath
+                ? document.evaluate(s.query, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue
+                : document.querySelector(s.query);
+              const visible = el => {
+                if (!el || !el.isConnected) return false;
+                const rect = el.getBoundingClientRect();
+                return rect.width > 0 && rect.height > 0 && getComputedStyle(el).visibility !== 'hidden';
+              };
+              const waitUntil = async (pending, timeout) => {
+                const deadline = Date.now() + timeout;
+                let left = pending();
+                while (left.length && Date.now() < deadline) {
+                  await new Promise(resolve => setTimeout(resolve, 50));
+                  left = pending();
+                }
+                return left;
+              };
+            """;
+
+    /** Outlines the element matching a compiled selector, if any. */
+    static final String HIGHLIGHT = "s => {\n" + DOM_HELPERS + """
+              try {
+                const el = find(s);
+                if (el && el.style) {
+                  el.style.outline = '3px solid #ff0033';
+                  el.style.outlineOffset = '2px';
+                }
+              } catch (e) {
+                // Selector not valid in this document
+              }
+            }
+            """;
+
+    private PageScripts() {
+    }
+
+    /**
+     * Turns a Playwright selector into the argument {@code find} understands. Playwright-only engines
+     * (text=, role=, >> chains) have no in-page equivalent and are rejected.
+     * @param selector CSS or XPath selector, optionally prefixed with {@code css=} or {@code xpath=}
+     * @return {@code {xpath, query}} map
+     */
+    static Map<String, Object> compile(String selector) {
+        Map<String, Object> compiled = new LinkedHashMap<>();
+        if (selector.startsWith("xpath=")) {
+            compiled.put("xpath", true);
+            compiled.put("query", selector.substring("xpath=".length()));
+        } else if (selector.startsWith("//") || selector.startsWith("(//")) {
+            compiled.put("xpath", true);
+            compiled.put("query", selector);
+        } else if (selector.startsWith("css=")) {
+            compiled.put("xpath", false);
+            compiled.put("query", selector.substring("css=".length()));
+        } else if (ENGINE_PREFIX.matcher(selector).matches() || selector.contains(">>")) {
+            throw new IllegalArgumentException("Only CSS and XPath selectors can be used in a batch: " + selector);
+        } else {
+            compiled.put("xpath", false);
+            compiled.put("query", selector);
+        }
+        return compiled;
+    }
+}
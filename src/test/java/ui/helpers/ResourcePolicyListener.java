@@ -0,0 +1,32 @@
+package ui.helpers;
+
+import config.ConfigManager;
+import factory.PlaywrightFactory;
+import factory.TestContext;
+import factory.network.ResourcePolicy;
+import io.qameta.allure.Allure;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * Attaches each UI test's resource policy statistics (requests blocked, bytes saved) to Allure,
+ * for passed and failed tests alike.
+ */
+public class ResourcePolicyListener implements IInvokedMethodListener {
+
+    // Runs before the test result listeners, while the Allure test case is still open
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod()) {
+            return;
+        }
+        PlaywrightFactory factory = TestContext.getFactory();
+        ResourcePolicy.Stats stats = factory == null ? null : factory.getBlockStats();
+        if (stats == null) {
+            return;
+        }
+        stats.awaitSizes(ConfigManager.getInt("block.size.wait.ms", 1000));
+        Allure.addAttachment("Resource policy", "text/plain", stats.toString(), ".txt");
+    }
+}
@@ -0,0 +1,198 @@
+package ui.helpers;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.ScreenshotScale;
+import com.microsoft.playwright.options.ScreenshotType;
+import config.ConfigManager;
+import io.qameta.allure.Allure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Failure screenshots: the test thread only takes the picture, with the element of the last page action
+ * outlined. The default is a full-page PNG; {@code screenshot.mode} viewport|clip, {@code screenshot.format=jpeg}
+ * (at {@code screenshot.quality}) and {@code screenshot.scale=css} make it cheaper. Hashing and writing run on
+ * a small bounded executor that streams the bytes into the Allure results; a full queue makes the test
+ * thread write itself. Identical images are hard-linked to the first copy once it has been written.
+ * {@link #flush()} waits for pending writes at suite end.
+ */
+public final class ScreenshotPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotPipeline.class);
+    // Completed with the file once the first copy of an image is on disk
+    private static final Map<String, CompletableFuture<Path>> written = new ConcurrentHashMap<>();
+    private static final AtomicInteger captured = new AtomicInteger();
+    private static final AtomicInteger duplicates = new AtomicInteger();
+    private static final AtomicLong bytesWritten = new AtomicLong();
+    private static final AtomicLong captureNanos = new AtomicLong();
+
+    private static ThreadPoolExecutor executor;
+
+    private ScreenshotPipeline() {
+    }
+
+    /**
+     * Takes a screenshot on the calling thread and attaches it to the current Allure test; the file
+     * is written in the background.
+     * @param page Page of the failed test
+     * @param name Attachment name
+     */
+    public static void capture(Page page, String name) {
+        long start = System.nanoTime();
+        highlight(page, ActionMetrics.lastSelector());
+        boolean png = !"jpeg".equalsIgnoreCase(ConfigManager.get("screenshot.format", "png"));
+        byte[] image = page.screenshot(options(png));
+        captureNanos.addAndGet(System.nanoTime() - start);
+        captured.incrementAndGet();
+
+        String source = Allure.getLifecycle().prepareAttachment(name, png ? "image/png" : "image/jpeg", png ? ".png" : ".jpg");
+        Path file = Paths.get(ConfigManager.get("allure.results.directory", "allure-results")).resolve(source);
+        executor().execute(() -> write(image, file));
+        logger.info("Screenshot of {} KB queued for {} on thread {}", image.length / 1024, file.getFileName(), Thread.currentThread().getName());
+    }
+
+    /**
+     * Waits for queued screenshot writes and stops the writer threads.
+     */
+    public static void flush() {
+        ThreadPoolExecutor current;
+        synchronized (ScreenshotPipeline.class) {
+            current = executor;
+            executor = null;
+        }
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(ConfigManager.getInt("screenshot.flush.timeout", 30000), TimeUnit.MILLISECONDS)) {
+                logger.warn("{} screenshot writes still pending after flush timeout", current.getQueue().size() + current.getActiveCount());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return Screenshot totals, for the suite-end log
+     */
+    public static String stats() {
+        int count = captured.get();
+        return String.format("Screenshots: %d captured (avg %d ms on the test thread), %d duplicates linked, %d KB written",
+                count, count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(captureNanos.get() / count),
+                duplicates.get(), bytesWritten.get() / 1024);
+    }
+
+    private static Page.ScreenshotOptions options(boolean png) {
+        boolean css = "css".equalsIgnoreCase(ConfigManager.get("screenshot.scale", "device"));
+        Page.ScreenshotOptions options = new Page.ScreenshotOptions()
+                .setScale(css ? ScreenshotScale.CSS : ScreenshotScale.DEVICE)
+                .setTimeout(ConfigManager.getInt("screenshot.timeout", 10000));
+        if (png) {
+            options.setType(ScreenshotType.PNG);
+        } else {
+            options.setType(ScreenshotType.JPEG).setQuality(ConfigManager.getInt("screenshot.quality", 70));
+        }
+        String mode = ConfigManager.get("screenshot.mode", "fullpage");
+        if ("fullpage".equalsIgnoreCase(mode)) {
+            options.setFullPage(true);
+        } else if ("clip".equalsIgnoreCase(mode)) {
+            String[] clip = ConfigManager.get("screenshot.clip", "0,0,1280,720").split(",");
+            options.setClip(Double.parseDouble(clip[0].trim()), Double.parseDouble(clip[1].trim()),
+                    Double.parseDouble(clip[2].trim()), Double.parseDouble(clip[3].trim()));
+        }
+        return options;
+    }
+
+    // Marks where the test was when it failed; the context is discarded afterwards
+    private static void highlight(Page page, String selector) {
+        if (selector == null || !ConfigManager.getBoolean("screenshot.highlight", true)) {
+            return;
+        }
+        try {
+            page.evaluate(PageScripts.HIGHLIGHT, PageScripts.compile(selector));
+        } catch (RuntimeException e) {
+            logger.debug("Could not highlight {}: {}", selector, e.getMessage());
+        }
+    }
+
+    // The first writer of an image registers a future and completes it after the bytes are on disk;
+    // later copies wait for it, and write their own bytes if the first write failed
+    private static void write(byte[] image, Path file) {
+        String hash = hash(image);
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> first = written.putIfAbsent(hash, mine);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            if (first != null && link(first, file)) {
+                duplicates.incrementAndGet();
+                return;
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                out.write(image);
+            }
+            bytesWritten.addAndGet(image.length);
+            mine.complete(file);
+        } catch (IOException e) {
+            logger.error("Failed to write screenshot {}: {}", file, e.getMessage());
+            written.remove(hash, mine);
+            mine.completeExceptionally(e);
+        }
+    }
+
+    private static boolean link(CompletableFuture<Path> first, Path file) throws IOException {
+        Path original;
+        try {
+            original = first.join();
+        } catch (CompletionException e) {
+            return false;
+        }
+        try {
+            Files.createLink(file, original);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(original, file);
+        }
+        return true;
+    }
+
+    private static String hash(byte[] image) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(image));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static synchronized ThreadPoolExecutor executor() {
+        if (executor == null) {
+            int threads = ConfigManager.getInt("screenshot.writer.threads", 2);
+            AtomicInteger counter = new AtomicInteger();
+            executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(ConfigManager.getInt("screenshot.queue.size", 16)),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "screenshot-writer-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,214 @@
+package ui.helpers;
+
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ISuite;
+import org.testng.ITestNGMethod;
+import ui.tests.setup.BrowserMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Splits a suite across CI nodes with {@code -Dshard=i/n} (1-based). Every test instance, i.e. every
+ * DataProvider row, goes to exactly one shard. Instances are grouped per browser and each group is
+ * spread longest-first onto the shard with the least load for that browser, so every node gets a
+ * similar mix of engines and a similar total duration. The plan depends only on the suite and the
+ * duration history, so all nodes must start from the same history file to agree on it.
+ */
+public final class ShardPlan {
+    private static final Logger logger = LoggerFactory.getLogger(ShardPlan.class);
+    private static final Map<String, ShardPlan> plans = new HashMap<>();
+
+    private final int index;
+    private final int count;
+    private final Map<String, Integer> assignment;
+    private final Map<String, String> matchKeys;
+
+    private ShardPlan(int index, int count, Map<String, Integer> assignment, Map<String, String> matchKeys) {
+        this.index = index;
+        this.count = count;
+        this.assignment = assignment;
+        this.matchKeys = matchKeys;
+    }
+
+    /**
+     * Order-independent identity of a test instance. Allure does not keep the order of parameters,
+     * so the merge step matches results on the method name plus the sorted parameter values.
+     * Identity-hash renderings ({@code pkg.Model@1b6d3586}) differ between JVMs and are reduced to the type.
+     * @param qualifiedName Qualified test method name
+     * @param values Parameter values
+     * @return Match key
+     */
+    public static String matchKey(String qualifiedName, List<String> values) {
+        return qualifiedName + values.stream()
+                .map(value -> value.replaceAll("[\\t\\r\\n]", " ").replaceFirst("^([\\w.$]+)@\\p{XDigit}+$", "$1@"))
+                .sorted()
+                .map(value -> "\u001f" + value)
+                .collect(Collectors.joining());
+    }
+
+    /**
+     * Returns the plan for the suite, building it on first use, or null when no shard is configured.
+     * @param suite Running suite
+     * @return Shard plan or null
+     */
+    public static synchronized ShardPlan forSuite(ISuite suite) {
+        String shard = ConfigManager.get("shard");
+        if (shard == null || shard.isBlank()) {
+            return null;
+        }
+        return plans.computeIfAbsent(suite.getName(), name -> build(suite, shard.trim()));
+    }
+
+    /**
+     * @param method TestNG method
+     * @param parameters DataProvider row, or an empty array
+     * @return true if the instance runs on this shard
+     */
+    public boolean isAssigned(ITestNGMethod method, Object[] parameters) {
+        Integer shard = assignment.get(DurationHistory.key(method, parameters));
+        // Instances unknown at planning time (e.g. non-static DataProviders) are split by key hash
+        int target = shard != null ? shard : Math.floorMod(DurationHistory.key(method, parameters).hashCode(), count);
+        return target == index - 1;
+    }
+
+    /**
+     * @param method TestNG method
+     * @return true if at least one instance of the method runs on this shard
+     */
+    public boolean hasInstances(ITestNGMethod method) {
+        List<Object[]> rows = DataProviderRows.rows(method);
+        if (rows.isEmpty()) {
+            return isAssigned(method, new Object[0]);
+        }
+        return rows.stream().anyMatch(row -> isAssigned(method, row));
+    }
+
+    private static ShardPlan build(ISuite suite, String shard) {
+        String[] parts = shard.split("/");
+        int index;
+        int count;
+        try {
+            index = Integer.parseInt(parts[0].trim());
+            count = Integer.parseInt(parts[1].trim());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("shard must look like i/n, e.g. 2/4, but was: " + shard, e);
+        }
+        if (count < 1 || index < 1 || index > count) {
+            throw new IllegalArgumentException("shard index must be between 1 and " + count + ": " + shard);
+        }
+
+        Map<String, List<Instance>> byBrowser = new TreeMap<>();
+        Map<String, String> matchKeys = new HashMap<>();
+        for (ITestNGMethod method : suite.getAllMethods()) {
+            if (!isIncluded(method)) {
+                continue;
+            }
+            List<Object[]> rows = DataProviderRows.rows(method);
+            if (rows.isEmpty()) {
+                rows = List.<Object[]>of(new Object[0]);
+            }
+            for (Object[] row : rows) {
+                Instance instance = new Instance(DurationHistory.key(method, row), DurationHistory.estimate(method, row));
+                matchKeys.put(instance.key(), matchKey(method.getQualifiedName(),
+                        Arrays.stream(row).map(String::valueOf).collect(Collectors.toList())));
+                byBrowser.computeIfAbsent(browser(method, row), b -> new ArrayList<>()).add(instance);
+            }
+        }
+
+        long[] totals = new long[count];
+        Map<String, Integer> assignment = assign(byBrowser, count, totals);
+        logger.info("Shard {}/{}: {} of {} test instances, estimated {} ms (all shards: {})", index, count,
+                assignment.values().stream().filter(s -> s == index - 1).count(), assignment.size(),
+                totals[index - 1], Arrays.toString(totals));
+        ShardPlan plan = new ShardPlan(index, count, assignment, matchKeys);
+        plan.write();
+        return plan;
+    }
+
+    /**
+     * Spreads each browser's instances longest-first onto the shard with the least load for that browser,
+     * breaking ties by total load. The result depends only on the instances, not on their order.
+     * @param byBrowser Instances grouped by browser
+     * @param count Number of shards
+     * @param totals Receives the estimated total per shard
+     * @return 0-based shard by history key
+     */
+    static Map<String, Integer> assign(Map<String, List<Instance>> byBrowser, int count, long[] totals) {
+        Map<String, Integer> assignment = new TreeMap<>();
+        for (List<Instance> group : new TreeMap<>(byBrowser).values()) {
+            List<Instance> instances = new ArrayList<>(group);
+            long[] browserLoad = new long[count];
+            instances.sort(Comparator.comparingLong(Instance::millis).reversed().thenComparing(Instance::key));
+            for (Instance instance : instances) {
+                int target = 0;
+                for (int i = 1; i < count; i++) {
+                    if (browserLoad[i] < browserLoad[target]
+                            || browserLoad[i] == browserLoad[target] && totals[i] < totals[target]) {
+                        target = i;
+                    }
+                }
+                browserLoad[target] += instance.millis();
+                totals[target] += instance.millis();
+                assignment.put(instance.key(), target);
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * @return File next to the Allure results that receives this shard's duration measurements
+     */
+    public Path measurementsFile() {
+        return resultsDirectory().resolve("shard-durations-" + index + "-of-" + count + ".tsv");
+    }
+
+    // Written next to the Allure results so the merge step can check every instance ran exactly once
+    private void write() {
+        Path file = resultsDirectory().resolve("shard-plan-" + index + "-of-" + count + ".tsv");
+        List<String> lines = new ArrayList<>();
+        assignment.forEach((key, shard) -> lines.add(key + "\t" + (shard + 1) + "\t" + matchKeys.get(key)));
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Failed to write shard plan {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Path resultsDirectory() {
+        return Paths.get(ConfigManager.get("allure.results.directory", "target/allure-results"));
+    }
+
+    private static String browser(ITestNGMethod method, Object[] row) {
+        if (row.length > 0 && row[0] instanceof String alias) {
+            try {
+                return BrowserMapper.mapBrowser(alias);
+            } catch (IllegalArgumentException e) {
+                // First column is not a browser
+            }
+        }
+        return Arrays.asList(method.getGroups()).contains("api") ? "api" : "none";
+    }
+
+    private static boolean isIncluded(ITestNGMethod method) {
+        List<String> included = method.getXmlTest() == null ? List.of() : method.getXmlTest().getIncludedGroups();
+        return included.isEmpty() || Arrays.stream(method.getGroups()).anyMatch(included::contains);
+    }
+
+    record Instance(String key, long millis) {
+    }
+}
@@ -0,0 +1,80 @@
+package ui.helpers;
+
+import io.qameta.allure.Feature;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class ShardPlanTest {
+
+    @Test(description = "Every instance is assigned to exactly one shard and load is balanced per browser", groups = {"unit"})
+    @Feature("Sharding")
+    public void testAssignmentCoversEveryInstance() {
+        long[] totals = new long[2];
+        Map<String, Integer> assignment = ShardPlan.assign(instances(), 2, totals);
+
+        Assert.assertEquals(assignment.size(), 8, "All instances are assigned");
+        Assert.assertTrue(assignment.values().stream().allMatch(shard -> shard == 0 || shard == 1));
+        Assert.assertEquals(totals[0] + totals[1], 4000 + 3000 + 2000 + 1000 + 900 + 800 + 100 + 100);
+        Assert.assertTrue(Math.abs(totals[0] - totals[1]) <= 100, "Totals differ by at most one short test: " + totals[0] + " vs " + totals[1]);
+        Assert.assertNotEquals(assignment.get("T.ui[chromium,1]"), assignment.get("T.ui[chromium,2]"),
+                "The two longest chromium instances go to different shards");
+    }
+
+    @Test(description = "The plan does not depend on the order of the instances", groups = {"unit"})
+    @Feature("Sharding")
+    public void testAssignmentIsDeterministic() {
+        Map<String, Integer> expected = ShardPlan.assign(instances(), 3, new long[3]);
+        for (long seed = 1; seed <= 5; seed++) {
+            Map<String, List<ShardPlan.Instance>> shuffled = new TreeMap<>();
+            Random random = new Random(seed);
+            instances().forEach((browser, group) -> {
+                List<ShardPlan.Instance> copy = new ArrayList<>(group);
+                Collections.shuffle(copy, random);
+                shuffled.put(browser, copy);
+            });
+            Assert.assertEquals(ShardPlan.assign(shuffled, 3, new long[3]), expected);
+        }
+    }
+
+    @Test(description = "More shards than instances leaves shards empty instead of failing", groups = {"unit"})
+    @Feature("Sharding")
+    public void testMoreShardsThanInstances() {
+        long[] totals = new long[4];
+        Map<String, Integer> assignment = ShardPlan.assign(
+                Map.of("api", List.of(new ShardPlan.Instance("T.api", 50))), 4, totals);
+        Assert.assertEquals(assignment, Map.of("T.api", 0));
+        Assert.assertEquals(totals, new long[] {50, 0, 0, 0});
+    }
+
+    @Test(description = "Identity hashes are dropped from match keys and parameter order does not matter", groups = {"unit"})
+    @Feature("Sharding")
+    public void testMatchKey() {
+        Assert.assertEquals(ShardPlan.matchKey("T.m", List.of("b", "a")), ShardPlan.matchKey("T.m", List.of("a", "b")));
+        Assert.assertEquals(ShardPlan.matchKey("T.m", List.of("api.Model@1b6d3586")),
+                ShardPlan.matchKey("T.m", List.of("api.Model@4554617c")));
+        Assert.assertNotEquals(ShardPlan.matchKey("T.m", List.of("a@a.com")), ShardPlan.matchKey("T.m", List.of("a@b.com")));
+    }
+
+    private static Map<String, List<ShardPlan.Instance>> instances() {
+        Map<String, List<ShardPlan.Instance>> byBrowser = new TreeMap<>();
+        byBrowser.put("chromium", new ArrayList<>(List.of(
+                new ShardPlan.Instance("T.ui[chromium,1]", 4000),
+                new ShardPlan.Instance("T.ui[chromium,2]", 3000),
+                new ShardPlan.Instance("T.ui[chromium,3]", 2000),
+                new ShardPlan.Instance("T.ui[chromium,4]", 1000))));
+        byBrowser.put("firefox", new ArrayList<>(List.of(
+                new ShardPlan.Instance("T.ui[firefox,1]", 900),
+                new ShardPlan.Instance("T.ui[firefox,2]", 800))));
+        byBrowser.put("api", new ArrayList<>(List.of(
+                new ShardPlan.Instance("T.api1", 100),
+                new ShardPlan.Instance("T.api2", 100))));
+        return byBrowser;
+    }
+}
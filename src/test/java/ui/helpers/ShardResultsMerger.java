@@ -0,0 +1,180 @@
+package ui.helpers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Combines the {@code allure-results} directories of all shards into one and checks them against the
+ * shard plans written by {@link ShardPlan}: every planned test instance must have exactly one result.
+ * Usage: {@code ShardResultsMerger [--history <file>] <output dir> <shard results dir>...}; exits with 1
+ * when a test was dropped, run twice or the shards disagree about the plan. With {@code --history} the
+ * shards' duration measurements are folded into that history file for the next run's plan.
+ */
+public final class ShardResultsMerger {
+    private static final Logger logger = LoggerFactory.getLogger(ShardResultsMerger.class);
+    private static final String PLAN_PREFIX = "shard-plan-";
+    private static final String DURATIONS_PREFIX = "shard-durations-";
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private ShardResultsMerger() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int first = args.length > 1 && "--history".equals(args[0]) ? 2 : 0;
+        if (args.length - first < 2) {
+            System.err.println("Usage: ShardResultsMerger [--history <file>] <output dir> <shard results dir>...");
+            System.exit(2);
+        }
+        Path output = Paths.get(args[first]);
+        List<Path> inputs = new ArrayList<>();
+        for (int i = first + 1; i < args.length; i++) {
+            inputs.add(Paths.get(args[i]));
+        }
+        Map<String, Long> durations = new TreeMap<>();
+        List<String> problems = merge(output, inputs, durations);
+        if (first == 2 && !durations.isEmpty()) {
+            DurationHistory.merge(Paths.get(args[1]), durations);
+        }
+        if (problems.isEmpty()) {
+            System.out.println("Shard results merged into " + output + ": every planned test ran exactly once");
+            return;
+        }
+        problems.forEach(problem -> System.err.println("ERROR: " + problem));
+        System.exit(1);
+    }
+
+    /**
+     * Copies every shard's results into the output directory and validates them.
+     * @param output Merged allure-results directory
+     * @param inputs allure-results directories of the shards
+     * @param durations Receives the shards' duration measurements by history key
+     * @return Problems found, empty if the shards add up to the plan
+     */
+    public static List<String> merge(Path output, List<Path> inputs, Map<String, Long> durations) throws IOException {
+        List<String> problems = new ArrayList<>();
+        // Planned instances by history key
+        Map<String, Instance> plan = new TreeMap<>();
+        Set<Integer> shardsSeen = new TreeSet<>();
+        Set<Integer> shardCounts = new TreeSet<>();
+        Map<String, Integer> runs = new TreeMap<>();
+        Files.createDirectories(output);
+
+        for (Path input : inputs) {
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(input)) {
+                files = listing.filter(Files::isRegularFile).collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(PLAN_PREFIX)) {
+                    readPlan(file, plan, shardsSeen, shardCounts, problems);
+                    continue;
+                }
+                if (name.startsWith(DURATIONS_PREFIX)) {
+                    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                        String[] columns = line.split("\t");
+                        if (columns.length == 2) {
+                            durations.put(columns[0], Long.parseLong(columns[1]));
+                        }
+                    }
+                    continue;
+                }
+                if (name.endsWith("-result.json")) {
+                    String key = matchKey(mapper.readTree(file.toFile()));
+                    if (key != null) {
+                        runs.merge(key, 1, Integer::sum);
+                    }
+                }
+                Files.copy(file, output.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        if (plan.isEmpty()) {
+            problems.add("No shard plan found in " + inputs);
+            return problems;
+        }
+        if (shardCounts.size() > 1) {
+            problems.add("Shards were planned with different shard counts: " + shardCounts);
+        }
+        int count = shardCounts.isEmpty() ? 0 : shardCounts.iterator().next();
+        for (int shard = 1; shard <= count; shard++) {
+            if (!shardsSeen.contains(shard)) {
+                problems.add("Results of shard " + shard + "/" + count + " are missing");
+            }
+        }
+        // Instances whose parameters Allure renders alike share a match key and need one result each
+        Map<String, List<Instance>> expected = plan.values().stream()
+                .collect(Collectors.groupingBy(Instance::matchKey, TreeMap::new, Collectors.toList()));
+        expected.forEach((key, instances) -> {
+            int times = runs.getOrDefault(key, 0);
+            if (times < instances.size()) {
+                instances.stream().skip(times).forEach(instance ->
+                        problems.add("Dropped: " + instance.key() + " (shard " + instance.shard() + ")"));
+            }
+        });
+        runs.forEach((key, times) -> {
+            List<Instance> instances = expected.get(key);
+            if (instances == null) {
+                problems.add("Not in any shard plan: " + key.replace('\u001f', ' '));
+            } else if (times > instances.size()) {
+                problems.add("Ran " + times + " times: " + instances.get(0).key());
+            }
+        });
+        logger.info("Merged {} results of {} planned test instances from {} shard directories",
+                runs.values().stream().mapToInt(Integer::intValue).sum(), plan.size(), inputs.size());
+        return problems;
+    }
+
+    // Each shard writes the full plan; they must agree on every instance's shard
+    private static void readPlan(Path file, Map<String, Instance> plan, Set<Integer> shardsSeen,
+                                 Set<Integer> shardCounts, List<String> problems) throws IOException {
+        String[] parts = file.getFileName().toString()
+                .substring(PLAN_PREFIX.length()).replace(".tsv", "").split("-of-");
+        shardsSeen.add(Integer.parseInt(parts[0]));
+        shardCounts.add(Integer.parseInt(parts[1]));
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] columns = line.split("\t");
+            if (columns.length != 3) {
+                continue;
+            }
+            Instance instance = new Instance(columns[0], Integer.parseInt(columns[1]), columns[2]);
+            Instance previous = plan.putIfAbsent(instance.key(), instance);
+            if (previous != null && previous.shard() != instance.shard()) {
+                problems.add("Shard plans disagree for " + instance.key() + ": " + previous.shard() + " vs " + instance.shard());
+            }
+        }
+    }
+
+    private static String matchKey(JsonNode result) {
+        JsonNode fullName = result.get("fullName");
+        if (fullName == null || fullName.isNull()) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        JsonNode parameters = result.get("parameters");
+        if (parameters != null) {
+            parameters.forEach(parameter -> values.add(parameter.path("value").asText()));
+        }
+        return ShardPlan.matchKey(fullName.asText(), values);
+    }
+
+    private record Instance(String key, int shard, String matchKey) {
+    }
+}
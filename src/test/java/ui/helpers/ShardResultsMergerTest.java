@@ -0,0 +1,98 @@
+package ui.helpers;
+
+import io.qameta.allure.Feature;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ShardResultsMergerTest {
+    private static final String PLAN = String.join("\n",
+            "T.ui[chrome]\t1\t" + ShardPlan.matchKey("T.ui", List.of("chrome")),
+            "T.ui[firefox]\t2\t" + ShardPlan.matchKey("T.ui", List.of("firefox")),
+            "T.api\t2\t" + ShardPlan.matchKey("T.api", List.of()));
+
+    @Test(description = "Shards that add up to the plan merge without problems", groups = {"unit"})
+    @Feature("Sharding")
+    public void testCompleteRun() throws IOException {
+        Path shard1 = shard(1, 2, PLAN, result("T.ui", "chrome"));
+        Path shard2 = shard(2, 2, PLAN, result("T.ui", "firefox"), result("T.api"));
+        Files.writeString(shard2.resolve("shard-durations-2-of-2.tsv"), "T.api\t120\n");
+        Path output = Files.createTempDirectory("merged");
+        Map<String, Long> durations = new TreeMap<>();
+
+        List<String> problems = ShardResultsMerger.merge(output, List.of(shard1, shard2), durations);
+
+        Assert.assertEquals(problems, List.of());
+        Assert.assertEquals(durations, Map.of("T.api", 120L));
+        try (var files = Files.list(output)) {
+            Assert.assertEquals(files.filter(file -> file.toString().endsWith("-result.json")).count(), 3);
+        }
+    }
+
+    @Test(description = "A planned instance without a result is reported as dropped", groups = {"unit"})
+    @Feature("Sharding")
+    public void testDropped() throws IOException {
+        Path shard1 = shard(1, 2, PLAN, result("T.ui", "chrome"));
+        Path shard2 = shard(2, 2, PLAN, result("T.api"));
+
+        List<String> problems = ShardResultsMerger.merge(Files.createTempDirectory("merged"), List.of(shard1, shard2), new TreeMap<>());
+
+        Assert.assertEquals(problems, List.of("Dropped: T.ui[firefox] (shard 2)"));
+    }
+
+    @Test(description = "Duplicates, unplanned results, missing shards and disagreeing plans are reported", groups = {"unit"})
+    @Feature("Sharding")
+    public void testDuplicatesAndDisagreement() throws IOException {
+        String otherPlan = PLAN.replace("T.api\t2", "T.api\t1");
+        Path shard1 = shard(1, 3, otherPlan, result("T.ui", "chrome"), result("T.api"), result("T.extra"));
+        Path shard2 = shard(2, 3, PLAN, result("T.ui", "firefox"), result("T.api"));
+
+        List<String> problems = ShardResultsMerger.merge(Files.createTempDirectory("merged"), List.of(shard1, shard2), new TreeMap<>());
+
+        Assert.assertTrue(problems.contains("Shard plans disagree for T.api: 1 vs 2"), problems.toString());
+        Assert.assertTrue(problems.contains("Results of shard 3/3 are missing"), problems.toString());
+        Assert.assertTrue(problems.contains("Ran 2 times: T.api"), problems.toString());
+        Assert.assertTrue(problems.contains("Not in any shard plan: T.extra"), problems.toString());
+    }
+
+    @Test(description = "Instances that Allure renders alike need one result each", groups = {"unit"})
+    @Feature("Sharding")
+    public void testInstancesSharingAMatchKey() throws IOException {
+        String matchKey = ShardPlan.matchKey("T.model", List.of("api.Model@1b6d3586"));
+        String plan = "T.model[user:Model#aa]\t1\t" + matchKey + "\nT.model[user:Model#bb]\t1\t" + matchKey;
+
+        List<String> one = ShardResultsMerger.merge(Files.createTempDirectory("merged"),
+                List.of(shard(1, 1, plan, result("T.model", "api.Model@4554617c"))), new TreeMap<>());
+        List<String> both = ShardResultsMerger.merge(Files.createTempDirectory("merged"),
+                List.of(shard(1, 1, plan, result("T.model", "api.Model@4554617c"), result("T.model", "api.Model@74a14482"))),
+                new TreeMap<>());
+
+        Assert.assertEquals(one, List.of("Dropped: T.model[user:Model#bb] (shard 1)"));
+        Assert.assertEquals(both, List.of());
+    }
+
+    private static Path shard(int index, int count, String plan, String... results) throws IOException {
+        Path dir = Files.createTempDirectory("shard-" + index);
+        Files.writeString(dir.resolve("shard-plan-" + index + "-of-" + count + ".tsv"), plan, StandardCharsets.UTF_8);
+        for (int i = 0; i < results.length; i++) {
+            Files.writeString(dir.resolve("shard" + index + "-" + i + "-result.json"), results[i], StandardCharsets.UTF_8);
+        }
+        return dir;
+    }
+
+    private static String result(String fullName, String... values) {
+        List<String> parameters = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            parameters.add("{\"name\":\"arg" + i + "\",\"value\":\"" + values[i] + "\"}");
+        }
+        return "{\"fullName\":\"" + fullName + "\",\"parameters\":[" + String.join(",", parameters) + "]}";
+    }
+}
@@ -0,0 +1,87 @@
+package ui.helpers;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.Layout;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Logback appender keeping the last {@code capacity} events of every running test in memory,
+ * keyed by the {@code testId} MDC value set by {@link TestLogListener}. Events are formatted only
+ * when a failed test's buffer is drained; passing tests' buffers are simply dropped.
+ */
+public class TestLogAppender extends AppenderBase<ILoggingEvent> {
+    static final String MDC_KEY = "testId";
+    private static final Map<String, Deque<ILoggingEvent>> buffers = new ConcurrentHashMap<>();
+    private static volatile Layout<ILoggingEvent> sharedLayout;
+    private static volatile int sharedCapacity = 500;
+
+    private Layout<ILoggingEvent> layout;
+    private int capacity = 500;
+
+    public void setLayout(Layout<ILoggingEvent> layout) {
+        this.layout = layout;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void start() {
+        if (layout == null) {
+            addError("No layout set for appender " + name);
+            return;
+        }
+        sharedLayout = layout;
+        sharedCapacity = capacity;
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        String testId = event.getMDCPropertyMap().get(MDC_KEY);
+        if (testId == null) {
+            return;
+        }
+        // Freezes the message and MDC, the arguments may change before the buffer is drained
+        event.prepareForDeferredProcessing();
+        Deque<ILoggingEvent> buffer = buffers.computeIfAbsent(testId, id -> new ArrayDeque<>());
+        synchronized (buffer) {
+            if (buffer.size() == sharedCapacity) {
+                buffer.removeFirst();
+            }
+            buffer.addLast(event);
+        }
+    }
+
+    /**
+     * Removes a test's buffer and formats it.
+     * @param testId MDC test id
+     * @return Log text, or null if nothing was logged
+     */
+    static String drain(String testId) {
+        Deque<ILoggingEvent> buffer = buffers.remove(testId);
+        Layout<ILoggingEvent> layout = sharedLayout;
+        if (buffer == null || layout == null) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        synchronized (buffer) {
+            buffer.forEach(event -> text.append(layout.doLayout(event)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Drops a test's buffer without formatting it.
+     * @param testId MDC test id
+     */
+    static void discard(String testId) {
+        buffers.remove(testId);
+    }
+}
@@ -0,0 +1,68 @@
+package ui.helpers;
+
+import io.qameta.allure.Allure;
+import org.slf4j.MDC;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * Tags every log line of a test with a {@code testId} MDC value so {@link TestLogAppender} can
+ * buffer it, attaches the buffered log to Allure when the test fails and drops it otherwise.
+ */
+public class TestLogListener implements IInvokedMethodListener, ITestListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            String testId = testResult.getMethod().getQualifiedName() + "@" + Integer.toHexString(System.identityHashCode(testResult));
+            testResult.setAttribute(TestLogAppender.MDC_KEY, testId);
+            MDC.put(TestLogAppender.MDC_KEY, testId);
+        }
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        attach(result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        attach(result);
+    }
+
+    @Override
+    public void onTestFailedWithTimeout(ITestResult result) {
+        attach(result);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        discard(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        discard(result);
+    }
+
+    private void attach(ITestResult result) {
+        Object testId = result.getAttribute(TestLogAppender.MDC_KEY);
+        if (testId != null) {
+            String log = TestLogAppender.drain(testId.toString());
+            if (log != null) {
+                Allure.addAttachment("Test log", "text/plain", log, ".log");
+            }
+        }
+        MDC.remove(TestLogAppender.MDC_KEY);
+    }
+
+    private void discard(ITestResult result) {
+        Object testId = result.getAttribute(TestLogAppender.MDC_KEY);
+        if (testId != null) {
+            TestLogAppender.discard(testId.toString());
+        }
+        MDC.remove(TestLogAppender.MDC_KEY);
+    }
+}
@@ -8,6 +8,9 @@ import config.ConfigManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Map;
+
 /** Helper class for Playwright wait operations in page objects. */
 public class WaitHelper {
     private static final Logger logger = LoggerFactory.getLogger(WaitHelper.class);
@@ -31,6 +34,21 @@ public class WaitHelper {
         }
     }
 
+    /**
+     * Waits until the required elements are visible and reads all of them in one page evaluation.
+     * @param selectors Selectors by name
+     * @param required Names that must be visible before the read
+     * @return Snapshot of all named elements
+     */
+    public DomSnapshot waitForSnapshot(Map<String, String> selectors, Collection<String> required) {
+        logger.debug("Waiting for {} elements to be visible: {} on thread {}", required.size(), selectors, Thread.currentThread().getName());
+        DomSnapshot.Result result = DomSnapshot.read(page, selectors, required, defaultTimeout);
+        if (!result.missing().isEmpty()) {
+            throw new RuntimeException("Elements not visible after " + defaultTimeout + "ms: " + result.missing());
+        }
+        return result.snapshot();
+    }
+
     public Locator waitForClickable(String selector) {
         logger.debug("Waiting for element to be clickable: {} on thread {}", selector, Thread.currentThread().getName());
         try {
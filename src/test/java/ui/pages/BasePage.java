@@ -2,75 +2,138 @@ package ui.pages;
 
 import com.microsoft.playwright.Locator;
 import factory.TestContext;
+import factory.TestScope;
+import ui.helpers.ActionMetrics;
+import ui.helpers.DomSnapshot;
+import ui.helpers.FormFiller;
 import ui.helpers.WaitHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
 /** Base class for all Page Objects. Provides common actions like click, type, wait, etc. */
 public abstract class BasePage {
     private static final Logger logger = LoggerFactory.getLogger(BasePage.class);
     protected final com.microsoft.playwright.Page page;
     protected final WaitHelper waitHelper;
+    protected final FormFiller formFiller;
 
-    public BasePage() {
-        this.page = TestContext.getPage();
-        if (this.page == null) {
-            throw new IllegalStateException("Page is null. Ensure TestContext is properly initialized.");
+    protected final TestScope scope;
+    private final String browserName;
+
+    public BasePage(TestScope scope) {
+        if (scope == null) {
+            throw new IllegalStateException("TestScope is null. Ensure the browser is set up before creating pages.");
         }
+        this.scope = scope;
+        this.page = scope.page();
         this.waitHelper = new WaitHelper(page);
+        this.formFiller = new FormFiller(page, waitHelper);
+        this.browserName = page.context().browser() != null ? page.context().browser().browserType().name() : "unknown";
+    }
+
+    /** Uses the scope bound to the current thread; prefer passing the scope explicitly. */
+    public BasePage() {
+        this(TestContext.getScope());
     }
 
     protected void click(String selector) {
         logger.debug("Clicking element: {} on thread {}", selector, Thread.currentThread().getName());
-        waitHelper.waitForClickable(selector).click();
+        timed("click", selector, () -> waitHelper.waitForClickable(selector).click());
     }
 
     protected void type(String selector, String text) {
         logger.debug("Typing '{}' into element: {} on thread {}", text, selector, Thread.currentThread().getName());
-        Locator element = waitHelper.waitForVisible(selector);
-        element.clear();
-        element.fill(text);
+        timed("type", selector, () -> {
+            Locator element = waitHelper.waitForVisible(selector);
+            element.clear();
+            element.fill(text);
+        });
+    }
+
+    /**
+     * Fills several fields with as few driver calls as possible, firing input and change events.
+     * @param fields Values by CSS or XPath selector, in fill order
+     * @return Driver calls used
+     */
+    protected FormFiller.Report fillForm(Map<String, String> fields) {
+        return fillForm(fields, Set.of());
+    }
+
+    /**
+     * @param fields Values by CSS or XPath selector, in fill order
+     * @param keyboardFields Selectors that need real key presses, e.g. masked or autocomplete inputs
+     * @return Driver calls used
+     */
+    protected FormFiller.Report fillForm(Map<String, String> fields, Set<String> keyboardFields) {
+        logger.debug("Filling {} fields on thread {}", fields.size(), Thread.currentThread().getName());
+        return timed("fillForm", String.join(", ", fields.keySet()), () -> formFiller.fill(fields, keyboardFields));
     }
 
     protected String getText(String selector) {
         logger.debug("Getting text from element: {} on thread {}", selector, Thread.currentThread().getName());
-        Locator locator = waitHelper.waitForVisible(selector);
-        String text = locator.textContent();
-        if (text == null || text.trim().isEmpty()) {
-            text = locator.getAttribute("value");
-            return text != null ? text.trim() : "";
-        }
-        return text.trim();
+        return timed("getText", selector, () -> {
+            Locator locator = waitHelper.waitForVisible(selector);
+            String text = locator.textContent();
+            if (text == null || text.trim().isEmpty()) {
+                text = locator.getAttribute("value");
+                return text != null ? text.trim() : "";
+            }
+            return text.trim();
+        });
+    }
+
+    /**
+     * Reads several elements in one round trip after a single wait for all of them to be visible.
+     * @param selectors CSS or XPath selectors by name
+     * @return Texts, values and visibility by name
+     */
+    protected DomSnapshot readAll(Map<String, String> selectors) {
+        logger.debug("Reading elements: {} on thread {}", selectors.keySet(), Thread.currentThread().getName());
+        return timed("readAll", String.join(", ", selectors.values()), () -> waitHelper.waitForSnapshot(selectors, selectors.keySet()));
     }
 
     protected boolean isVisible(String selector) {
         logger.debug("Checking visibility of element: {} on thread {}", selector, Thread.currentThread().getName());
-        try {
-            return waitHelper.waitForVisible(selector).isVisible();
-        } catch (RuntimeException e) {
-            return false;
-        }
+        return timed("isVisible", selector, () -> {
+            try {
+                return waitHelper.waitForVisible(selector).isVisible();
+            } catch (RuntimeException e) {
+                return false;
+            }
+        });
     }
 
     protected void isVisibleInteractChoice(String selector) {
         logger.debug("Checking accessibility of element: {} on thread {}", selector, Thread.currentThread().getName());
-        waitHelper.waitForInteractiveChoice(selector);
+        timed("choose", selector, () -> waitHelper.waitForInteractiveChoice(selector));
     }
 
     protected void waitForUrlContains(String partialUrl) {
         logger.debug("Waiting for URL to contain: {} on thread {}", partialUrl, Thread.currentThread().getName());
-        waitHelper.waitForUrlContains(partialUrl);
+        timed("waitUrl", partialUrl, () -> waitHelper.waitForUrlContains(partialUrl));
     }
 
     protected void waitForTitleContains(String partialTitle) {
         logger.debug("Waiting for title to contain: {} on thread {}", partialTitle, Thread.currentThread().getName());
-        waitHelper.waitForTitleContains(partialTitle);
+        timed("waitTitle", partialTitle, () -> waitHelper.waitForTitleContains(partialTitle));
     }
 
     protected void selectOption(String selectSelector, String optionValue) {
         logger.debug("Selecting option '{}' in dropdown: {} on thread {}", optionValue, selectSelector, Thread.currentThread().getName());
-        Locator selectLocator = waitHelper.waitForVisible(selectSelector);
-        selectLocator.selectOption(optionValue);
+        timed("select", selectSelector, () -> waitHelper.waitForVisible(selectSelector).selectOption(optionValue));
+    }
+
+    /** Records the action's latency under this page class and browser, see {@link ActionMetrics}. */
+    protected <T> T timed(String action, String selector, Supplier<T> body) {
+        return ActionMetrics.time(getClass().getSimpleName(), action, selector, browserName, body);
+    }
+
+    protected void timed(String action, String selector, Runnable body) {
+        ActionMetrics.time(getClass().getSimpleName(), action, selector, browserName, body);
     }
 
 }
\ No newline at end of file
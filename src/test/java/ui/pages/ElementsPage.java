@@ -1,5 +1,11 @@
 package ui.pages;
 
+import factory.TestScope;
+import ui.helpers.DomSnapshot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class ElementsPage extends BasePage {
     // Locators
     private static final String ELEMENTS_HEADER = "xpath=//div[@class='header-text' and contains(text(), 'Elements')]";
@@ -26,9 +32,26 @@ public class ElementsPage extends BasePage {
     private static final String CREATED_ELEMENTS_PERMANENT_ADDRESS = "xpath=//div[@id='output']//p[@id='permanentAddress']";
 
 
+    private static final Map<String, String> CREATED_DATA_FIELDS = new LinkedHashMap<>();
+
+    static {
+        CREATED_DATA_FIELDS.put("name", CREATED_ELEMENTS_NAME);
+        CREATED_DATA_FIELDS.put("email", CREATED_ELEMENTS_EMAIL);
+        CREATED_DATA_FIELDS.put("currentAddress", CREATED_ELEMENTS_CURRENT_ADDRESS);
+        CREATED_DATA_FIELDS.put("permanentAddress", CREATED_ELEMENTS_PERMANENT_ADDRESS);
+    }
+
     // Check box
     private static final String PAGE_TITLE = "h3";
 
+    public ElementsPage(TestScope scope) {
+        super(scope);
+    }
+
+    public ElementsPage() {
+        super();
+    }
+
     // Actions
     public boolean userOnElementsPage() {
         return isVisible(ELEMENTS_HEADER);
@@ -55,6 +78,15 @@ public class ElementsPage extends BasePage {
         type(PERMANENT_ADDRESS_INPUT, address);
     }
 
+    public void fillTextBox(String fullName, String email, String currentAddress, String permanentAddress) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(FULL_NAME_INPUT, fullName);
+        fields.put(EMAIL_INPUT, email);
+        fields.put(CURRENT_ADDRESS_INPUT, currentAddress);
+        fields.put(PERMANENT_ADDRESS_INPUT, permanentAddress);
+        fillForm(fields);
+    }
+
     public void clickTextBoxSubmitBtn() {
         click(SUBMIT_BTN);
     }
@@ -77,4 +109,15 @@ public class ElementsPage extends BasePage {
     public String getCreatedElementsPermanentAddress() {
         return getText(CREATED_ELEMENTS_PERMANENT_ADDRESS);
     }
+
+    /** @return All submitted text box fields, read in one round trip */
+    public CreatedData getCreatedData() {
+        DomSnapshot snapshot = readAll(CREATED_DATA_FIELDS);
+        return new CreatedData(snapshot.text("name"), snapshot.text("email"),
+                snapshot.text("currentAddress"), snapshot.text("permanentAddress"));
+    }
+
+    /** Text box output shown after submitting the form. */
+    public record CreatedData(String name, String email, String currentAddress, String permanentAddress) {
+    }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package ui.pages;
 
 import com.microsoft.playwright.Locator;
+import factory.TestScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class FormsPage extends BasePage{
     private static final Logger logger = LoggerFactory.getLogger(FormsPage.class);
 
@@ -37,6 +41,14 @@ public class FormsPage extends BasePage{
 
 
 
+    public FormsPage(TestScope scope) {
+        super(scope);
+    }
+
+    public FormsPage() {
+        super();
+    }
+
     public void selectPracticeForm(){
         Locator practiceForm = page.locator(PRACTICE_FORM);
         Locator practiceFormHeader = page.locator(PRACTICE_FORM_HEADER);
@@ -77,6 +89,14 @@ public class FormsPage extends BasePage{
         type(FORM_EMAIL, email);
     }
 
+    public void fillNameAndEmail(String firstName, String lastName, String email){
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(FORM_FIRST_NAME, firstName);
+        fields.put(FORM_LAST_NAME, lastName);
+        fields.put(FORM_EMAIL, email);
+        fillForm(fields);
+    }
+
     public void chooseGender(String gender){
         switch (gender != null ? gender : "") {
             case "Male" -> page.locator(FORM_GENDER_MALE).click();
@@ -1,5 +1,6 @@
 package ui.pages;
 
+import factory.TestScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,6 +9,14 @@ public class HomePage extends BasePage {
     private static final String ELEMENTS_BUTTON = "xpath=//div[contains(@class, 'top-card') and .//h5[text()='Elements']]";
     private static final String FORM_BUTTON = "xpath=//div[contains(@class, 'top-card') and .//h5[text()='Forms']]";
 
+    public HomePage(TestScope scope) {
+        super(scope);
+    }
+
+    public HomePage() {
+        super();
+    }
+
     public void clickElementsButton() {
         logger.info("Clicking Elements button on thread {}", Thread.currentThread().getName());
         click(ELEMENTS_BUTTON);
@@ -1,5 +1,7 @@
 package ui.steps;
 
+import factory.TestContext;
+import factory.TestScope;
 import ui.pages.ElementsPage;
 import ui.pages.HomePage;
 
@@ -7,9 +9,14 @@ public class ElementsSteps {
     private final HomePage homePage;
     private final ElementsPage elementsPage;
 
+    public ElementsSteps(TestScope scope) {
+        this.homePage = new HomePage(scope);
+        this.elementsPage = new ElementsPage(scope);
+    }
+
+    /** Uses the scope bound to the current thread; prefer {@link #ElementsSteps(TestScope)}. */
     public ElementsSteps() {
-        this.homePage = new HomePage();
-        this.elementsPage = new ElementsPage();
+        this(TestContext.getScope());
     }
 
     public void goToElementsPage() {
@@ -21,10 +28,7 @@ public class ElementsSteps {
     }
 
     public void fillTextBoxForm(String fullName, String email, String currentAddress, String permanentAddress) {
-        elementsPage.enterFullName(fullName);
-        elementsPage.enterEmail(email);
-        elementsPage.enterCurrentAddress(currentAddress);
-        elementsPage.enterPermanentAddress(permanentAddress);
+        elementsPage.fillTextBox(fullName, email, currentAddress, permanentAddress);
     }
 
     public void clickSubmitTextBox() {
@@ -40,21 +44,18 @@ public class ElementsSteps {
     }
 
     public void assertCreatedDataIsCorrect(String name, String email, String currentAddress, String permanentAddress) {
-        String actualName = elementsPage.getCreatedElementsName();
-        if (!name.equals(actualName)) {
-            throw new AssertionError(String.format("%s expected, But was %s", name, actualName));
+        ElementsPage.CreatedData actual = elementsPage.getCreatedData();
+        if (!name.equals(actual.name())) {
+            throw new AssertionError(String.format("%s expected, But was %s", name, actual.name()));
         }
-        String actualEmail = elementsPage.getCreatedElementsEmail();
-        if (!email.equals(actualEmail)) {
-            throw new AssertionError(String.format("%s expected, But was %s", email, actualEmail));
+        if (!email.equals(actual.email())) {
+            throw new AssertionError(String.format("%s expected, But was %s", email, actual.email()));
         }
-        String actualCurrentAddress = elementsPage.getCreatedElementsCurrentAddress();
-        if (!currentAddress.equals(actualCurrentAddress)) {
-            throw new AssertionError(String.format("%s expected, But was %s", currentAddress, actualCurrentAddress));
+        if (!currentAddress.equals(actual.currentAddress())) {
+            throw new AssertionError(String.format("%s expected, But was %s", currentAddress, actual.currentAddress()));
         }
-        String actualPermanentAddress = elementsPage.getCreatedElementsPermanentAddress();
-        if (!permanentAddress.equals(actualPermanentAddress)) {
-            throw new AssertionError(String.format("%s expected, But was %s", permanentAddress, actualPermanentAddress));
+        if (!permanentAddress.equals(actual.permanentAddress())) {
+            throw new AssertionError(String.format("%s expected, But was %s", permanentAddress, actual.permanentAddress()));
         }
     }
 }
\ No newline at end of file
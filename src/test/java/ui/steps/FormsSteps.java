@@ -1,5 +1,7 @@
 package ui.steps;
 
+import factory.TestContext;
+import factory.TestScope;
 import ui.pages.FormsPage;
 import ui.pages.HomePage;
 
@@ -7,9 +9,14 @@ public class FormsSteps {
     private final HomePage homePage;
     private final FormsPage formsPage;
 
+    public FormsSteps(TestScope scope) {
+        this.homePage = new HomePage(scope);
+        this.formsPage = new FormsPage(scope);
+    }
+
+    /** Uses the scope bound to the current thread; prefer {@link #FormsSteps(TestScope)}. */
     public FormsSteps() {
-        this.homePage = new HomePage();
-        this.formsPage = new FormsPage();
+        this(TestContext.getScope());
     }
 
     public void goToFormsPage() {
@@ -23,9 +30,7 @@ public class FormsSteps {
     }
 
     public void fillTextForms(String firstName, String secondName, String email){
-        formsPage.enterFirstName(firstName);
-        formsPage.enterLastName(secondName);
-        formsPage.enterEmail(email);
+        formsPage.fillNameAndEmail(firstName, secondName, email);
     }
 
     public void chooseUserGender(String gender){
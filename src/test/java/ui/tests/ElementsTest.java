@@ -1,5 +1,6 @@
 package ui.tests;
 
+import factory.TestScope;
 import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
 import org.testng.Assert;
@@ -7,6 +8,7 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import ui.steps.ElementsSteps;
 import ui.tests.setup.BaseTest;
+import ui.tests.setup.StorageStates;
 
 public class ElementsTest extends BaseTest {
 
@@ -24,9 +26,9 @@ public class ElementsTest extends BaseTest {
     @Feature("Elements Page")
     @Description("Tests navigation to the Elements page for different browsers")
     public void testGoToElementsPage(String browser) {
-        setupBrowser(browser);
+        TestScope scope = setupBrowser(browser);
 
-        ElementsSteps elementsSteps = new ElementsSteps();
+        ElementsSteps elementsSteps = new ElementsSteps(scope);
         elementsSteps.goToElementsPage();
         Assert.assertTrue(elementsSteps.isOnElementsPage(), "Should be on Elements page");
     }
@@ -46,13 +48,13 @@ public class ElementsTest extends BaseTest {
     @Description("Test text box Elements page for different browsers")
     public void testFillTextBoxInElements(
             String browser, String fullName, String email, String currentAddress, String permanentAddress) {
-        setupBrowser(browser);
+        TestScope scope = setupBrowser(browser, StorageStates.CONSENT);
         String expectedName = "Name:" + fullName;
         String expectedEmail = "Email:" + email;
         String expectedCurrentAddress = "Current Address:" + currentAddress;
         String expectedPermanentAddress = "Permananet Address:" + permanentAddress    ;
 
-        ElementsSteps elementsSteps = new ElementsSteps();
+        ElementsSteps elementsSteps = new ElementsSteps(scope);
         elementsSteps.goToElementsPage();
         elementsSteps.goToTextBoxScreen();
         elementsSteps.fillTextBoxForm(fullName, email, currentAddress, permanentAddress);
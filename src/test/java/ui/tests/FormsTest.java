@@ -1,5 +1,6 @@
 package ui.tests;
 
+import factory.TestScope;
 import io.qameta.allure.Description;
 import io.qameta.allure.Feature;
 import org.testng.annotations.DataProvider;
@@ -27,10 +28,10 @@ public class FormsTest extends BaseTest {
     @Description("Test of Forms page for different browsers")
     public void testFillPracticeForm(String browser, String firstName, String lastName, String email,
                                      String gender, String day, String month, String year){
-        setupBrowser(browser);
+        TestScope scope = setupBrowser(browser);
         String shorMonth = month.length() <= 3 ? month : month.substring(0, 3);
 
-        FormsSteps formsSteps = new FormsSteps();
+        FormsSteps formsSteps = new FormsSteps(scope);
         formsSteps.goToFormsPage();
         formsSteps.checkIfPracticeFormSelected();
         formsSteps.fillTextForms(firstName, lastName, email);
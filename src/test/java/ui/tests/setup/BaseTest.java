@@ -1,5 +1,6 @@
 package ui.tests.setup;
 
+import factory.TestScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.ITestResult;
@@ -11,14 +12,23 @@ public abstract class BaseTest {
     private final TestSetup testSetup = new TestSetup();
     private final TestTeardown testTeardown = new TestTeardown();
 
+    static {
+        StorageStates.register();
+    }
+
     @BeforeMethod(alwaysRun = true)
     public void setUp() {
         logger.info("Starting setup for thread {}", Thread.currentThread().getName());
     }
 
-    protected void setupBrowser(String browser) {
+    protected TestScope setupBrowser(String browser) {
         logger.info("Setting up browser {} for thread {}", browser, Thread.currentThread().getName());
-        testSetup.setupBrowserAndNavigate(browser);
+        return testSetup.setupBrowserAndNavigate(browser);
+    }
+
+    protected TestScope setupBrowser(String browser, String snapshot) {
+        logger.info("Setting up browser {} from snapshot '{}' for thread {}", browser, snapshot, Thread.currentThread().getName());
+        return testSetup.setupBrowserAndNavigate(browser, snapshot);
     }
 
     @AfterMethod(alwaysRun = true)
@@ -0,0 +1,37 @@
+package ui.tests.setup;
+
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.TimeoutError;
+import factory.StorageStateCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Storage state snapshots used by the UI tests, registered with {@link StorageStateCache} by {@link BaseTest}.
+ */
+public final class StorageStates {
+    private static final Logger logger = LoggerFactory.getLogger(StorageStates.class);
+    private static final String CONSENT_BUTTON = "button.fc-cta-consent";
+
+    /** demoqa with the cookie consent dialog already accepted */
+    public static final String CONSENT = "consent";
+
+    private StorageStates() {
+    }
+
+    static void register() {
+        StorageStateCache.register(CONSENT, StorageStates::acceptConsent);
+    }
+
+    // The dialog is only shown in some regions, so a missing button is not an error
+    private static void acceptConsent(Page page) {
+        Locator button = page.locator(CONSENT_BUTTON);
+        try {
+            button.click(new Locator.ClickOptions().setTimeout(5000));
+            logger.info("Accepted consent dialog for thread {}", Thread.currentThread().getName());
+        } catch (TimeoutError e) {
+            logger.info("No consent dialog shown for thread {}", Thread.currentThread().getName());
+        }
+    }
+}
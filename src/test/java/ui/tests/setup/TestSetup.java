@@ -4,31 +4,48 @@ import com.microsoft.playwright.Page;
 import config.ConfigManager;
 import factory.PlaywrightFactory;
 import factory.TestContext;
+import factory.TestScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import ui.helpers.ActionMetrics;
 
 public class TestSetup {
     private static final Logger logger = LoggerFactory.getLogger(TestSetup.class);
 
-    public void setupBrowserAndNavigate(String browser) {
+    public TestScope setupBrowserAndNavigate(String browser) {
+        return setupBrowserAndNavigate(browser, null);
+    }
+
+    /**
+     * Creates the test's browser context and opens ui.url.
+     * @param browser Browser alias from the DataProvider (e.g. chrome, safari)
+     * @param snapshot Storage state snapshot to start from, or null for a clean context
+     * @return Scope to hand to the test's page objects and steps
+     */
+    public TestScope setupBrowserAndNavigate(String browser, String snapshot) {
         String mappedBrowser = BrowserMapper.mapBrowser(browser);
         logger.info("Setting up browser: {} (mapped to {}) for thread {}", browser, mappedBrowser, Thread.currentThread().getName());
         PlaywrightFactory factory = new PlaywrightFactory(
                 mappedBrowser,
                 ConfigManager.getBoolean("headless", true),
                 ConfigManager.getInt("viewport.width", 1920),
-                ConfigManager.getInt("viewport.height", 1080)
+                ConfigManager.getInt("viewport.height", 1080),
+                snapshot
         );
 
-        TestContext.setFactory(factory);
-        TestContext.setBrowserContext(factory.getBrowserContext());
-        TestContext.setPage(factory.getPage());
+        ITestResult result = Reporter.getCurrentTestResult();
+        TestScope scope = new TestScope(
+                result != null ? result.getMethod().getQualifiedName() : Thread.currentThread().getName(), factory);
+        TestContext.setScope(scope);
 
         String url = ConfigManager.get("ui.url");
         if (url == null) {
             throw new IllegalStateException("ui.url is not configured in config.properties");
         }
-        TestContext.getPage().navigate(url);
+        ActionMetrics.time("TestSetup", "navigate", url, mappedBrowser, () -> scope.page().navigate(url));
         logger.info("Navigated to URL: {} for thread {}", url, Thread.currentThread().getName());
+        return scope;
     }
 }
\ No newline at end of file
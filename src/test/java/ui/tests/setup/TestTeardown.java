@@ -1,5 +1,6 @@
 package ui.tests.setup;
 
+import factory.LifecycleCoordinator;
 import factory.PlaywrightFactory;
 import factory.TestContext;
 import org.slf4j.Logger;
@@ -13,13 +14,7 @@ public class TestTeardown {
         logger.info("Tearing down for thread {}", Thread.currentThread().getName());
         try {
             PlaywrightFactory factory = TestContext.getFactory();
-            if (factory != null) {
-                if (result.getStatus() == ITestResult.SUCCESS || result.getStatus() == ITestResult.SKIP) {
-                    factory.close();
-                } else {
-                    logger.info("Preserving Page for screenshot on test failure for thread {}", Thread.currentThread().getName());
-                }
-            }
+            LifecycleCoordinator.afterTest(result, factory);
         } catch (Exception e) {
             logger.error("Error during teardown for thread {}: {}", Thread.currentThread().getName(), e.getMessage());
         } finally {